@@ -28,6 +28,7 @@ public final class ClassNames {
     private static final String PKG_TOPLEVEL        = "io.github.jwharm.javagi";
     private static final String PKG_BASE            = "io.github.jwharm.javagi.base";
     private static final String PKG_INTEROP         = "io.github.jwharm.javagi.interop";
+    private static final String PKG_GLIB_TYPES      = "io.github.jwharm.javagi.glib.types";
     private static final String PKG_GIO             = "io.github.jwharm.javagi.gio";
     private static final String PKG_GOBJECT         = "io.github.jwharm.javagi.gobject";
     private static final String PKG_GOBJECT_TYPES   = "io.github.jwharm.javagi.gobject.types";
@@ -35,20 +36,30 @@ public final class ClassNames {
     public static final ClassName CONSTANTS = get(PKG_TOPLEVEL, "Constants");
 
     public static final ClassName ALIAS = get(PKG_BASE, "Alias");
+    public static final ClassName BOOLEAN_OUT = get(PKG_BASE, "BooleanOut");
+    public static final ClassName DOUBLE_OUT = get(PKG_BASE, "DoubleOut");
     public static final ClassName ENUMERATION = get(PKG_BASE, "Enumeration");
+    public static final ClassName FLAGS = get(PKG_BASE, "Flags");
     public static final ClassName FLOATING = get(PKG_BASE, "Floating");
     public static final ClassName GERROR_EXCEPTION = get(PKG_BASE, "GErrorException");
     public static final ClassName GLIB_LOGGER = get(PKG_BASE, "GLibLogger");
+    public static final ClassName INT_OUT = get(PKG_BASE, "IntOut");
+    public static final ClassName LONG_OUT = get(PKG_BASE, "LongOut");
     public static final ClassName OUT = get(PKG_BASE, "Out");
     public static final ClassName PROXY = get(PKG_BASE, "Proxy");
     public static final ClassName PROXY_INSTANCE = get(PKG_BASE, "ProxyInstance");
     public static final ClassName UNSUPPORTED_PLATFORM_EXCEPTION = get(PKG_BASE, "UnsupportedPlatformException");
 
     public static final ClassName ARENA_CLOSE_ACTION = get(PKG_INTEROP, "ArenaCloseAction");
+    public static final ClassName BOUND_ARENAS = get(PKG_INTEROP, "BoundArenas");
+    public static final ClassName CALL_ARENA = get(PKG_INTEROP, "CallArena");
     public static final ClassName MEMORY_CLEANER = get(PKG_INTEROP, "MemoryCleaner");
     public static final ClassName INTEROP = get(PKG_INTEROP, "Interop");
     public static final ClassName PLATFORM = get(PKG_INTEROP, "Platform");
 
+    public static final ClassName ARRAY_VIEWS = get(PKG_GLIB_TYPES, "ArrayViews");
+    public static final ClassName BYTES_VIEWS = get(PKG_GLIB_TYPES, "BytesViews");
+
     public static final ClassName AUTO_CLOSEABLE = get(PKG_GIO, "AutoCloseable");
 
     public static final ClassName BUILDER = get(PKG_GOBJECT, "Builder");
@@ -60,6 +71,7 @@ public final class ClassNames {
     public static final ClassName OVERRIDES = get(PKG_GOBJECT_TYPES, "Overrides");
     public static final ClassName PROPERTIES = get(PKG_GOBJECT_TYPES, "Properties");
     public static final ClassName SIGNALS = get(PKG_GOBJECT_TYPES, "Signals");
+    public static final ClassName SIGNAL_HANDLERS = get(PKG_GOBJECT_TYPES, "SignalHandlers");
     public static final ClassName TYPE_CACHE = get(PKG_GOBJECT_TYPES, "TypeCache");
     public static final ClassName TYPES = get(PKG_GOBJECT_TYPES, "Types");
 
@@ -94,6 +94,13 @@ public class CallableGenerator {
     void generateMethodParameters(MethodSpec.Builder builder,
                                   boolean generic,
                                   boolean setOfBitfield) {
+        generateMethodParameters(builder, generic, setOfBitfield, false);
+    }
+
+    void generateMethodParameters(MethodSpec.Builder builder,
+                                  boolean generic,
+                                  boolean setOfBitfield,
+                                  boolean primitiveOut) {
         if (callable.parameters() == null)
             return;
 
@@ -113,6 +120,9 @@ public class CallableGenerator {
                 if (generic && type.equals(ClassNames.GOBJECT))
                     type = ClassNames.GENERIC_T;
 
+                if (primitiveOut && primitiveOutType(p) != null)
+                    type = primitiveOutType(p);
+
                 var spec = ParameterSpec.builder(type, generator.getName());
                 if (p.nullable())
                     spec.addAnnotation(Nullable.class);
@@ -124,6 +134,10 @@ public class CallableGenerator {
     }
 
     PartialStatement marshalParameters() {
+        return marshalParameters(false);
+    }
+
+    PartialStatement marshalParameters(boolean primitiveOut) {
         var parameters = callable.parameters();
         if (parameters == null)
             return callable.throws_()
@@ -142,8 +156,11 @@ public class CallableGenerator {
             var generator = new TypedValueGenerator(p);
 
             // Generate null-check. But don't null-check parameters that are
-            // hidden from the Java API, or primitive values
-            if (generator.checkNull())
+            // hidden from the Java API, or primitive values. Primitive holders
+            // are null-checked during preprocessing.
+            boolean checkNull = generator.checkNull()
+                    && !(primitiveOut && primitiveOutType(p) != null);
+            if (checkNull)
                 stmt.add("($memorySegment:T) (" + generator.getName() + " == null ? $memorySegment:T.NULL : ");
 
             // callback destroy
@@ -181,7 +198,7 @@ public class CallableGenerator {
                 stmt.add(generator.marshalJavaToNative(generator.getName()));
 
             // Closing parentheses for null-check
-            if (generator.checkNull())
+            if (checkNull)
                 stmt.add(")");
         }
 
@@ -192,6 +209,43 @@ public class CallableGenerator {
         return stmt;
     }
 
+    /**
+     * Return the primitive holder class (IntOut, LongOut, DoubleOut or
+     * BooleanOut) for a primitive out-parameter, or null when the parameter
+     * cannot be passed with a primitive holder.
+     */
+    static ClassName primitiveOutType(Parameter p) {
+        if (!p.isOutParameter()
+                || p.isArrayLengthParameter()
+                || !(p.anyType() instanceof Type type)
+                || type.get() != null)
+            return null;
+
+        if (type.isBoolean())
+            return ClassNames.BOOLEAN_OUT;
+
+        return switch (Conversions.toJavaBaseType(type.name())) {
+            case "int" -> ClassNames.INT_OUT;
+            case "long" -> ClassNames.LONG_OUT;
+            case "double" -> ClassNames.DOUBLE_OUT;
+            case null, default -> null;
+        };
+    }
+
+    /**
+     * Return true when an overload with primitive holders for the primitive
+     * out-parameters should be generated.
+     */
+    boolean hasPrimitiveOutParameters() {
+        if (callable.parameters() == null
+                || callable instanceof Constructor
+                || callable instanceof VirtualMethod)
+            return false;
+
+        return callable.parameters().parameters().stream()
+                .anyMatch(p -> primitiveOutType(p) != null);
+    }
+
     boolean varargs() {
         var params = callable.parameters();
         return params != null
@@ -19,6 +19,7 @@
 
 package io.github.jwharm.javagi.generators;
 
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
 import io.github.jwharm.javagi.configuration.ClassNames;
 import io.github.jwharm.javagi.gir.*;
@@ -44,11 +45,39 @@ public class FieldGenerator extends TypedValueGenerator {
 
     private final Field f;
     private final Callback cb;
-
-    public FieldGenerator(Field f) {
+    private final RegisteredType container;
+
+    /**
+     * Create a generator for the accessor methods of a struct field.
+     *
+     * @param f         the field
+     * @param container the type whose memory layout contains the field
+     */
+    public FieldGenerator(Field f, RegisteredType container) {
         super(f);
         this.f = f;
         this.cb = f.callback();
+        this.container = container;
+    }
+
+    // The byte offset of the field in the struct
+    private CodeBlock offset() {
+        if (MemoryLayoutGenerator.hasOffsetConstant(container, f))
+            return CodeBlock.of("$T.$L",
+                    MemoryLayoutGenerator.memoryLayoutsClass(container),
+                    MemoryLayoutGenerator.offsetName(f));
+        return CodeBlock.of("getMemoryLayout().byteOffset($T.PathElement.groupElement($S))",
+                MemoryLayout.class, f.name());
+    }
+
+    // The VarHandle to read and write the field value
+    private CodeBlock varHandle() {
+        if (MemoryLayoutGenerator.hasVarHandleConstant(container, f))
+            return CodeBlock.of("$T.$L",
+                    MemoryLayoutGenerator.memoryLayoutsClass(container),
+                    MemoryLayoutGenerator.varHandleName(f));
+        return CodeBlock.of("getMemoryLayout()$Z.varHandle($T.PathElement.groupElement($S))",
+                MemoryLayout.class, f.name());
     }
 
     private String methodName(String prefix) {
@@ -84,22 +113,21 @@ public class FieldGenerator extends TypedValueGenerator {
         if ((type != null)
                 && (!type.isPointer())
                 && (target instanceof Class || target instanceof Interface)) {
-            var calcOffset = "long _offset = getMemoryLayout().byteOffset($T.PathElement.groupElement($S))";
             var returnSlice = PartialStatement.of("return ")
                     .add(marshalNativeToJava("handle().asSlice(_offset)", false))
                     .add(";\n");
-            return spec.addStatement(calcOffset, MemoryLayout.class, f.name())
+            return spec.addStatement("long _offset = $L", offset())
                     .addNamedCode(returnSlice.format(), returnSlice.arguments())
                     .build();
         }
 
         // Read a pointer or primitive value from the struct
         var carrierType = getCarrierTypeName(f.anyType());
-        var getResult = "var _result = ($T) getMemoryLayout()$Z.varHandle($T.PathElement.groupElement($S)).get(handle(), 0)";
         var returnResult = PartialStatement.of("return ")
                 .add(marshalNativeToJava("_result", false))
                 .add(";\n");
-        return spec.addStatement(getResult, carrierType, MemoryLayout.class, f.name())
+        return spec.addStatement("var _result = ($T) $L.get(handle(), 0L)",
+                        carrierType, varHandle())
                 .addNamedCode(returnResult.format(), returnResult.arguments())
                 .build();
     }
@@ -122,18 +150,17 @@ public class FieldGenerator extends TypedValueGenerator {
 
         PartialStatement stmt = marshalJavaToNative(getName())
                 .add(null,
-                        "memoryLayout", MemoryLayout.class,
-                        "memorySegment", MemorySegment.class,
-                        "fieldName", f.name());
+                        "varHandle", varHandle(),
+                        "memorySegment", MemorySegment.class);
 
         if (checkNull())
-            spec.addNamedCode("getMemoryLayout().varHandle($memoryLayout:T.PathElement.groupElement($fieldName:S))$Z"
-                            + ".set(handle(), 0, (" + getName() + " == null ? $memorySegment:T.NULL : "
+            spec.addNamedCode("$varHandle:L$Z"
+                            + ".set(handle(), 0L, (" + getName() + " == null ? $memorySegment:T.NULL : "
                             + stmt.format() + "));\n",
                     stmt.arguments());
         else
-            spec.addNamedCode("getMemoryLayout().varHandle($memoryLayout:T.PathElement.groupElement($fieldName:S))$Z"
-                            + ".set(handle(), 0, "
+            spec.addNamedCode("$varHandle:L$Z"
+                            + ".set(handle(), 0L, "
                             + stmt.format() + ");\n",
                     stmt.arguments());
 
@@ -149,8 +176,7 @@ public class FieldGenerator extends TypedValueGenerator {
                         
                         @return The value of the field {@code $1L}
                         """, f.name())
-                .addStatement("long _offset = getMemoryLayout().byteOffset($T.PathElement.groupElement($S))",
-                        MemoryLayout.class, f.name())
+                .addStatement("long _offset = $L", offset())
                 .addStatement("$T _slice = handle().asSlice(_offset, $T.getMemoryLayout())",
                         MemorySegment.class, getType())
                 .addStatement("return new $T(handle().asSlice(_offset))",
@@ -168,8 +194,7 @@ public class FieldGenerator extends TypedValueGenerator {
                         @param $2L The new value for the field {@code $1L}
                         """, f.name(), getName())
                 .addParameter(getType(), getName())
-                .addStatement("long _offset = getMemoryLayout().byteOffset($T.PathElement.groupElement($S))",
-                        MemoryLayout.class, f.name())
+                .addStatement("long _offset = $L", offset())
                 .addStatement("$T _slice = handle().asSlice(_offset, $T.getMemoryLayout())",
                         MemorySegment.class, getType());
 
@@ -207,10 +232,8 @@ public class FieldGenerator extends TypedValueGenerator {
                         getName() + "Upcall")
                 .addStatement("$T _address = $T.nativeLinker().upcallStub(_handle.bindTo(this), _fdesc, arena)",
                         MemorySegment.class, Linker.class)
-                .addStatement("getMemoryLayout().varHandle($T.PathElement.groupElement($S))$Z"
-                                + ".set(handle(), 0, (method == null ? $T.NULL : _address))",
-                        MemoryLayout.class,
-                        f.name(),
+                .addStatement("$L$Z.set(handle(), 0L, (method == null ? $T.NULL : _address))",
+                        varHandle(),
                         MemorySegment.class)
                 .build();
     }
@@ -19,7 +19,10 @@
 
 package io.github.jwharm.javagi.generators;
 
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
 import io.github.jwharm.javagi.gir.Class;
 import io.github.jwharm.javagi.gir.*;
 import io.github.jwharm.javagi.gir.Record;
@@ -29,6 +32,7 @@ import io.github.jwharm.javagi.util.PartialStatement;
 import javax.lang.model.element.Modifier;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
 import java.util.List;
 
 import static io.github.jwharm.javagi.util.Conversions.*;
@@ -50,34 +54,111 @@ public class MemoryLayoutGenerator {
         return !isOpaque;
     }
 
+    /**
+     * The name of the nested class that holds the memory layout constants of
+     * the provided type. The layout is created once, when the nested class is
+     * initialized.
+     */
+    static ClassName memoryLayoutsClass(RegisteredType rt) {
+        return rt.typeName().nestedClass("MemoryLayouts");
+    }
+
     MethodSpec generateMemoryLayout(RegisteredType rt) {
         if (!canGenerate(rt))
             return null;
 
-        var fieldList = CollectionUtils.filter(rt.children(), Field.class);
-        var unionList = CollectionUtils.filter(rt.children(), Union.class);
-        if (fieldList.isEmpty()
-                && !unionList.isEmpty()
-                && !unionList.getFirst().fields().isEmpty())
-            fieldList = unionList.getFirst().fields();
-
-        boolean isUnion = rt instanceof Union || !unionList.isEmpty();
-
-        // The $> and $< in the statement increase and decrease indentation
-        var layout = PartialStatement.of("return $memoryLayout:T."
-                        + (isUnion ? "union" : "struct") + "Layout(\n$>")
-                .add(generateFieldLayouts(fieldList, isUnion))
-                .add("$<\n).withName(\"" + rt.cType() + "\");\n");
-
         return MethodSpec.methodBuilder("getMemoryLayout")
                 .addJavadoc("The memory layout of the native struct.\n")
                 .addJavadoc("@return the memory layout\n")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                 .returns(MemoryLayout.class)
-                .addNamedCode(layout.format(), layout.arguments())
+                .addStatement("return $T.MEMORY_LAYOUT", memoryLayoutsClass(rt))
                 .build();
     }
 
+    TypeSpec generateMemoryLayoutsClass(RegisteredType rt) {
+        if (!canGenerate(rt))
+            return null;
+
+        var fieldList = layoutFields(rt);
+        boolean isUnion = rt instanceof Union
+                || !CollectionUtils.filter(rt.children(), Union.class).isEmpty();
+
+        // The $> and $< in the statement increase and decrease indentation
+        var layout = PartialStatement.of("$memoryLayout:T."
+                        + (isUnion ? "union" : "struct") + "Layout(\n$>")
+                .add(generateFieldLayouts(fieldList, isUnion))
+                .add("$<\n).withName(\"" + rt.cType() + "\")");
+
+        var builder = TypeSpec.classBuilder(memoryLayoutsClass(rt))
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addField(FieldSpec.builder(MemoryLayout.class, "MEMORY_LAYOUT",
+                                Modifier.STATIC, Modifier.FINAL)
+                        .initializer(layout.toCodeBlock())
+                        .build());
+
+        // Only records have field accessors
+        if (! (rt instanceof Record))
+            return builder.build();
+
+        for (Field field : fieldList) {
+            if (field.isDisguised())
+                continue;
+
+            builder.addField(FieldSpec.builder(long.class, offsetName(field),
+                            Modifier.STATIC, Modifier.FINAL)
+                    .initializer("MEMORY_LAYOUT.byteOffset($T.PathElement.groupElement($S))",
+                            MemoryLayout.class, field.name())
+                    .build());
+
+            if (hasValueLayout(field))
+                builder.addField(FieldSpec.builder(VarHandle.class, varHandleName(field),
+                                Modifier.STATIC, Modifier.FINAL)
+                        .initializer("MEMORY_LAYOUT.varHandle($T.PathElement.groupElement($S))",
+                                MemoryLayout.class, field.name())
+                        .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Check whether the memory layouts class of the provided type contains a
+     * precomputed byte offset for this field.
+     */
+    static boolean hasOffsetConstant(RegisteredType rt, Field field) {
+        return rt instanceof Record
+                && new MemoryLayoutGenerator().canGenerate(rt)
+                && !field.isDisguised()
+                && layoutFields(rt).stream().anyMatch(f -> f == field);
+    }
+
+    /**
+     * Check whether the memory layouts class of the provided type contains a
+     * precomputed VarHandle for this field.
+     */
+    static boolean hasVarHandleConstant(RegisteredType rt, Field field) {
+        return hasOffsetConstant(rt, field) && hasValueLayout(field);
+    }
+
+    static String offsetName(Field field) {
+        return toJavaConstantUpperCase(field.name()) + "_OFFSET";
+    }
+
+    static String varHandleName(Field field) {
+        return toJavaConstantUpperCase(field.name()) + "_HANDLE";
+    }
+
+    // Get the fields that are included in the memory layout
+    private static List<Field> layoutFields(RegisteredType rt) {
+        var fieldList = CollectionUtils.filter(rt.children(), Field.class);
+        var unionList = CollectionUtils.filter(rt.children(), Union.class);
+        if (fieldList.isEmpty()
+                && !unionList.isEmpty()
+                && !unionList.getFirst().fields().isEmpty())
+            fieldList = unionList.getFirst().fields();
+        return fieldList;
+    }
+
     private PartialStatement generateFieldLayouts(List<Field> fieldList,
                                                   boolean isUnion) {
         var stmt = PartialStatement.of(null,
@@ -127,6 +208,23 @@ public class MemoryLayoutGenerator {
         };
     }
 
+    // Check if the field has a plain value layout, so a VarHandle can be used
+    private static boolean hasValueLayout(Field f) {
+        return switch (f.anyType()) {
+            case null -> true; // callback
+            case Type type -> hasValueLayout(type);
+            case Array array -> array.fixedSize() <= 0;
+        };
+    }
+
+    private static boolean hasValueLayout(Type type) {
+        RegisteredType target = type.get();
+        if (target instanceof Alias alias)
+            return hasValueLayout(alias.type());
+        return type.isPointer()
+                || !new MemoryLayoutGenerator().canGenerate(target);
+    }
+
     private PartialStatement layoutForType(Type type) {
         RegisteredType target = type.get();
 
@@ -29,7 +29,6 @@ import io.github.jwharm.javagi.util.PartialStatement;
 import io.github.jwharm.javagi.util.Platform;
 
 import javax.lang.model.element.Modifier;
-import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
@@ -46,6 +45,8 @@ public class MethodGenerator {
     private final boolean generic;
     private final MethodSpec.Builder builder;
     private final CallableGenerator generator;
+    private boolean primitiveOut;
+    private boolean listView;
 
     public MethodGenerator(Callable func) {
         this(func, getName(func));
@@ -90,6 +91,20 @@ public class MethodGenerator {
     }
 
     public FieldSpec generateNamedDowncallHandle(Modifier... modifiers) {
+        if (func.critical() && !generator.varargs())
+            return FieldSpec.builder(
+                            MethodHandle.class,
+                            func.callableAttrs().cIdentifier(),
+                            modifiers)
+                    .initializer(CodeBlock.builder()
+                            .add("$T.criticalDowncallHandle($Z$S,$W",
+                                    ClassNames.INTEROP,
+                                    func.callableAttrs().cIdentifier())
+                            .add(generator.generateFunctionDescriptor())
+                            .add(")")
+                            .build())
+                    .build();
+
         return FieldSpec.builder(
                         MethodHandle.class,
                         func.callableAttrs().cIdentifier(),
@@ -104,6 +119,102 @@ public class MethodGenerator {
                 .build();
     }
 
+    /**
+     * Generate a method handle declaration for calling the function pointer
+     * of a virtual method. The function pointer is passed as the first
+     * argument, so the method handle can be linked once and reused for all
+     * (parent) implementations of the virtual method.
+     */
+    public FieldSpec generateVirtualDowncallHandle(Modifier... modifiers) {
+        return FieldSpec.builder(
+                        MethodHandle.class,
+                        virtualDowncallHandleName(vm),
+                        modifiers)
+                .initializer(CodeBlock.builder()
+                        .add("$T.downcallHandle($Z", ClassNames.INTEROP)
+                        .add(new CallableGenerator(vm).generateFunctionDescriptor())
+                        .add(")")
+                        .build())
+                .build();
+    }
+
+    /**
+     * The name of the method handle for the function pointer of a virtual
+     * method, for example {@code GObjectClass_dispose}.
+     */
+    static String virtualDowncallHandleName(VirtualMethod vm) {
+        Record typeStruct = switch (vm.parent()) {
+            case Class c -> c.typeStruct();
+            case Interface i -> i.typeStruct();
+            default -> throw new IllegalStateException("Virtual Method parent must be a class or an interface");
+        };
+        return typeStruct.cType() + "_" + vm.name();
+    }
+
+    /**
+     * Generate an overload of the method, where primitive out-parameters
+     * are passed as primitive holders (IntOut, LongOut, DoubleOut and
+     * BooleanOut). The native function writes directly into the memory of
+     * the holder, so no memory is allocated for the out-parameters and the
+     * result is not boxed.
+     */
+    public MethodSpec generatePrimitiveOutOverload() {
+        primitiveOut = true;
+        return generate();
+    }
+
+    /**
+     * Return true when a primitive out-parameter overload can be generated.
+     */
+    public boolean hasPrimitiveOutOverload() {
+        return generator.hasPrimitiveOutParameters();
+    }
+
+    /**
+     * Generate an additional method that returns a lazy, unmodifiable
+     * {@code List} view on the returned native array, instead of copying
+     * it into a Java array. The name of the method is the name of the
+     * original method with a "View" suffix.
+     */
+    public MethodSpec generateListViewOverload() {
+        listView = true;
+        builder.addJavadoc("Same as {@code $L}, but returns an unmodifiable list view on the\n"
+                        + "native array, that only creates the elements that are read.\n",
+                getName(func));
+        if (func.infoElements().doc() != null)
+            builder.addJavadoc("<p>\n");
+        return generate();
+    }
+
+    /**
+     * Return true when a list view overload can be generated.
+     */
+    public boolean hasListViewOverload() {
+        return new TypedValueGenerator(returnValue, true).listView();
+    }
+
+    // Primitive out-parameters that are passed as a primitive holder
+    private boolean isPrimitiveOut(Parameter p) {
+        return primitiveOut && CallableGenerator.primitiveOutType(p) != null;
+    }
+
+    // Optional primitive out-parameters can be passed as NULL when the holder
+    // is null. Other primitive out-parameters need a scratch slot.
+    private boolean allocatesMemory(Parameter p) {
+        if (isPrimitiveOut(p))
+            return !p.nullable();
+        return p.allocatesMemory();
+    }
+
+    private boolean allocatesMemory() {
+        if (!primitiveOut)
+            return func.allocatesMemory();
+        if (func.throws_() || func.returnValue().allocatesMemory())
+            return true;
+        return func.parameters().parameters().stream()
+                .anyMatch(this::allocatesMemory);
+    }
+
     public MethodSpec generate() {
         // Javadoc
         if ((! (func instanceof Constructor)) // not for private constructor helper methods
@@ -143,10 +254,10 @@ public class MethodGenerator {
         else if (func instanceof Constructor)
             builder.returns(MemorySegment.class);
         else
-            builder.returns(new TypedValueGenerator(returnValue).getType());
+            builder.returns(new TypedValueGenerator(returnValue, listView).getType());
 
         // Parameters
-        generator.generateMethodParameters(builder, generic, true);
+        generator.generateMethodParameters(builder, generic, true, primitiveOut);
 
         // Exception
         if (func.callableAttrs().throws_())
@@ -159,9 +270,9 @@ public class MethodGenerator {
                     Platform.toStringLiterals(func.platforms()));
 
         // try-block for arena
-        if (func.allocatesMemory())
-            builder.beginControlFlow("try (var _arena = $T.ofConfined())",
-                    Arena.class);
+        if (allocatesMemory())
+            builder.beginControlFlow("try (var _arena = $T.open())",
+                    ClassNames.CALL_ARENA);
 
         // Preprocessing
         if (func.parameters() != null)
@@ -169,8 +280,7 @@ public class MethodGenerator {
                     // Array parameters may refer to other parameters for their
                     // length, so they must be processed last.
                     .sorted((comparing(p -> p.anyType() instanceof Array)))
-                    .map(PreprocessingGenerator::new)
-                    .forEach(p -> p.generate(builder));
+                    .forEach(this::preprocess);
 
         // Allocate GError
         if (func.callableAttrs().throws_())
@@ -221,6 +331,7 @@ public class MethodGenerator {
             func.parameters().parameters().stream()
                     // Process Array parameters last
                     .sorted((comparing(p -> p.anyType() instanceof Array)))
+                    .filter(p -> !isPrimitiveOut(p))
                     .map(PostprocessingGenerator::new)
                     .forEach(p -> p.generate(builder));
 
@@ -233,7 +344,7 @@ public class MethodGenerator {
         else if (!returnValue.anyType().isVoid()) {
             RegisteredType target = returnValue.anyType() instanceof Type type
                     ? type.get() : null;
-            var generator = new TypedValueGenerator(returnValue);
+            var generator = new TypedValueGenerator(returnValue, listView);
             PartialStatement stmt = PartialStatement.of("");
             if (generic && returnValue.anyType().typeName().equals(ClassNames.GOBJECT))
                 stmt.add("($generic:T) ", "generic", ClassNames.GENERIC_T);
@@ -283,12 +394,31 @@ public class MethodGenerator {
         }
 
         // End try-block for arena
-        if (func.allocatesMemory())
+        if (allocatesMemory())
             builder.endControlFlow();
 
         return builder.build();
     }
 
+    private void preprocess(Parameter p) {
+        // Pass the memory of the primitive holder as the out-parameter
+        if (isPrimitiveOut(p)) {
+            String name = toJavaIdentifier(p.name());
+            if (p.nullable())
+                builder.addStatement("$1T _$2LPointer = $2L == null ? $1T.NULL : $2L.segment()",
+                        MemorySegment.class,
+                        name);
+            else
+                builder.addStatement("$1T _$2LPointer = $2L == null ? _arena.allocate($3T.$4L) : $2L.segment()",
+                        MemorySegment.class,
+                        name,
+                        ValueLayout.class,
+                        getValueLayoutPlain((Type) p.anyType()));
+            return;
+        }
+        new PreprocessingGenerator(p).generate(builder);
+    }
+
     private void functionNameInvocation() {
         // Result assignment
         PartialStatement invoke = new PartialStatement();
@@ -302,7 +432,7 @@ public class MethodGenerator {
         invoke.add("$helperClass:T.$cIdentifier:L.invokeExact($Z",
                         "helperClass", ((RegisteredType) func.parent()).helperClass(),
                         "cIdentifier", func.callableAttrs().cIdentifier())
-                .add(generator.marshalParameters())
+                .add(generator.marshalParameters(primitiveOut))
                 .add(");\n");
 
         builder.addNamedCode(invoke.format(), invoke.arguments());
@@ -317,9 +447,7 @@ public class MethodGenerator {
     }
 
     private void functionPointerInvocation() {
-        // Function descriptor
         var generator = new CallableGenerator(vm);
-        builder.addCode(generator.generateFunctionDescriptorDeclaration());
 
         // Function pointer lookup
         switch (vm.parent()) {
@@ -352,10 +480,14 @@ public class MethodGenerator {
             invoke.add("_result = ($" + typeTag + ":T) ", typeTag, typeName);
         }
 
-        // Function pointer invocation
-        invoke.add("$interop:T.downcallHandle(_func, _fdesc)$Z.invokeExact($Z", "interop",
-                        ClassNames.INTEROP)
-                .add(generator.marshalParameters())
+        // Function pointer invocation, with the function pointer as the
+        // first argument of the (static) method handle
+        PartialStatement parameters = generator.marshalParameters(primitiveOut);
+        invoke.add("$helperClass:T.$vfunc:L.invokeExact($Z_func",
+                        "helperClass", ((RegisteredType) vm.parent()).helperClass(),
+                        "vfunc", virtualDowncallHandleName(vm))
+                .add(parameters.format().isEmpty() ? "" : ", ")
+                .add(parameters)
                 .add(");\n");
 
         builder.addNamedCode(invoke.format(), invoke.arguments());
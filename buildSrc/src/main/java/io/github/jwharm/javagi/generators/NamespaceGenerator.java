@@ -62,6 +62,13 @@ public class NamespaceGenerator extends RegisteredTypeGenerator {
         for (Function f : ns.functions()) {
             if (!f.skip()) {
                 builder.addMethod(new MethodGenerator(f).generate());
+                if (new MethodGenerator(f).hasPrimitiveOutOverload())
+                    builder.addMethod(new MethodGenerator(f)
+                                                .generatePrimitiveOutOverload());
+                if (new MethodGenerator(f).hasListViewOverload())
+                    builder.addMethod(new MethodGenerator(f,
+                                              MethodGenerator.getName(f) + "View")
+                                                .generateListViewOverload());
                 if (f.hasBitfieldParameters())
                     builder.addMethod(new CallableGenerator(f)
                                                 .generateBitfieldOverload());
@@ -123,31 +130,41 @@ public class NamespaceGenerator extends RegisteredTypeGenerator {
                 .addModifiers(Modifier.PRIVATE, Modifier.STATIC);
 
         for (Class c : ns.classes())
-            spec.addCode(register(c.constructorName(), c.typeName()));
+            spec.addCode(register(c.constructorName(), c, c.typeName()));
 
         for (Interface i : ns.interfaces())
-            spec.addCode(register(i.constructorName(), i.typeName()));
+            spec.addCode(register(i.constructorName(), i, i.typeName()));
 
         for (Alias a : ns.aliases()) {
             RegisteredType target = a.type().get();
             if (target instanceof Class c)
-                spec.addCode(register(c.constructorName(), a.typeName()));
+                spec.addCode(register(c.constructorName(), c, a.typeName()));
             if (target instanceof Interface i)
-                spec.addCode(register(i.constructorName(), a.typeName()));
+                spec.addCode(register(i.constructorName(), i, a.typeName()));
         }
 
         for (Boxed b : ns.boxeds())
-            spec.addCode(register(b.constructorName(), b.typeName()));
+            spec.addCode(register(b.constructorName(), b, b.typeName()));
 
         return spec.build();
     }
 
-    private CodeBlock register(PartialStatement constructor, ClassName typeName) {
-        var stmt = PartialStatement.of("$typeCache:T.register($typeName:T.getType(), ",
+    /*
+     * Add the constructor to the index of GType names. The get-type function
+     * is only called when the type is actually used. Types without a GType
+     * name are registered with their GType directly.
+     */
+    private CodeBlock register(PartialStatement constructor,
+                               RegisteredType rt,
+                               ClassName typeName) {
+        var stmt = rt.glibTypeName() != null
+                ? PartialStatement.of("$typeCache:T.registerTypeName($glibTypeName:S, ",
                         "typeCache", ClassNames.TYPE_CACHE,
-                        "typeName", typeName)
-                .add(constructor)
-                .add(");\n");
+                        "glibTypeName", rt.glibTypeName())
+                : PartialStatement.of("$typeCache:T.register($typeName:T.getType(), ",
+                        "typeCache", ClassNames.TYPE_CACHE,
+                        "typeName", typeName);
+        stmt.add(constructor).add(");\n");
         return CodeBlock.builder()
                 .addNamed(stmt.format(), stmt.arguments())
                 .build();
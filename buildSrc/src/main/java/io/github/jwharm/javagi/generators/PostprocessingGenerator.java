@@ -105,11 +105,12 @@ public class PostprocessingGenerator extends TypedValueGenerator {
                             && arrayType.isPrimitive()
                             && !arrayType.isBoolean()) {
                     // Arrays with primitive values and known length
-                    payload = PartialStatement.of(("_%sPointer$Z"
-                                    + ".get(ValueLayout.ADDRESS, 0)$Z"
-                                    + ".reinterpret(%s * $valueLayout:T.%s.byteSize(), _arena, null)$Z"
+                    payload = PartialStatement.of(("$interop:T.reinterpret(_%sPointer$Z"
+                                    + ".get(ValueLayout.ADDRESS, 0),$W"
+                                    + "%s * $valueLayout:T.%s.byteSize())$Z"
                                     + ".toArray($valueLayout:T.%s)")
                             .formatted(getName(), len, valueLayout, valueLayout),
+                            "interop", ClassNames.INTEROP,
                             "valueLayout", ValueLayout.class);
                 } else {
                     // Other arrays
@@ -194,11 +194,12 @@ public class PreprocessingGenerator extends TypedValueGenerator {
                 && a.type().isPrimitive()
                 && type.isPointer()) {
             String layout = getValueLayoutPlain(type);
-            builder.addStatement("$1T $2LParam = $2L.reinterpret($3T.$4L.byteSize(), _arena, null)",
+            builder.addStatement("$1T $2LParam = $5T.reinterpret($2L, $3T.$4L.byteSize())",
                     MemorySegment.class,
                     getName(),
                     ValueLayout.class,
-                    layout);
+                    layout,
+                    ClassNames.INTEROP);
             builder.addStatement("$1T _$2LAlias = new $1T($2LParam.get($3T.$4L, 0))",
                     type.typeName(),
                     getName(),
@@ -216,11 +217,12 @@ public class PreprocessingGenerator extends TypedValueGenerator {
         // Pointer to a single value
         if (type != null) {
             String layout = getValueLayoutPlain(type);
-            builder.addStatement("$1T $2LParam = $2L.reinterpret($3T.$4L.byteSize(), _arena, null)",
+            builder.addStatement("$1T $2LParam = $5T.reinterpret($2L, $3T.$4L.byteSize())",
                     MemorySegment.class,
                     getName(),
                     ValueLayout.class,
-                    layout);
+                    layout,
+                    ClassNames.INTEROP);
 
             if (type.isPrimitive()
                     || target instanceof Alias a && a.type().isPrimitive()) {
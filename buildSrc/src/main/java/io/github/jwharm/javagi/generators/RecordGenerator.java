@@ -20,7 +20,11 @@
 package io.github.jwharm.javagi.generators;
 
 import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import com.squareup.javapoet.*;
 import io.github.jwharm.javagi.configuration.ClassNames;
@@ -107,10 +111,11 @@ public class RecordGenerator extends RegisteredTypeGenerator {
 
         builder.addMethod(memoryAddressConstructor());
 
-        MethodSpec memoryLayout = new MemoryLayoutGenerator()
-                                            .generateMemoryLayout(rec);
+        var layoutGenerator = new MemoryLayoutGenerator();
+        MethodSpec memoryLayout = layoutGenerator.generateMemoryLayout(rec);
         if (memoryLayout != null) {
-            builder.addMethod(memoryLayout);
+            builder.addMethod(memoryLayout)
+                   .addType(layoutGenerator.generateMemoryLayoutsClass(rec));
 
             if (noNewConstructor())
                 builder.addMethod(constructor(true))
@@ -143,12 +148,28 @@ public class RecordGenerator extends RegisteredTypeGenerator {
         if ("GValue".equals(rec.cType()))
             builder.addMethod(gvalueToString());
 
+        if ("GPtrArray".equals(rec.cType()))
+            builder.addMethod(ptrArrayAsList());
+
+        if ("GArray".equals(rec.cType()))
+            builder.addMethod(arrayAsList())
+                    .addMethod(asSegment("arraySegment", "element size"));
+
+        if ("GByteArray".equals(rec.cType()))
+            builder.addMethod(asSegment("byteArraySegment", "size of a byte"))
+                    .addMethod(byteArrayToByteArray());
+
+        if ("GBytes".equals(rec.cType()))
+            builder.addMethod(bytesAsSegment())
+                    .addMethod(bytesAsByteBuffer())
+                    .addMethod(bytesFromSegment());
+
         return builder.build();
     }
 
     private void generateField(Field f) {
         if (f.isDisguised()) return;
-        FieldGenerator generator = new FieldGenerator(f);
+        FieldGenerator generator = new FieldGenerator(f, rec);
         Callback cb  = f.callback();
 
         if (cb == null) {
@@ -404,4 +425,148 @@ public class RecordGenerator extends RegisteredTypeGenerator {
                         ClassNames.GOBJECTS)
                 .build();
     }
+
+    private MethodSpec ptrArrayAsList() {
+        TypeVariableName e = TypeVariableName.get("E");
+        return MethodSpec.methodBuilder("asList")
+                .addJavadoc("""
+                        Create a random-access {@link java.util.List} view on the
+                        elements of this array. The view reads the {@code pdata}
+                        buffer directly, and creates the elements on demand with
+                        the {@code make} function. The list cannot be modified.
+                        
+                        @param  make function that creates an element for a pointer
+                        @param  <E>  the element type
+                        @return a list view on the elements of this array
+                        """)
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariable(e)
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), e))
+                .addParameter(ParameterizedTypeName.get(
+                        ClassName.get(java.util.function.Function.class),
+                        ClassName.get(MemorySegment.class), e), "make")
+                .addStatement("return $T.ptrArrayView(this, make)",
+                        ClassNames.ARRAY_VIEWS)
+                .build();
+    }
+
+    private MethodSpec arrayAsList() {
+        TypeVariableName e = TypeVariableName.get("E");
+        return MethodSpec.methodBuilder("asList")
+                .addJavadoc("""
+                        Create a random-access {@link java.util.List} view on the
+                        elements of this array, for an array of structs. The view
+                        reads the {@code data} buffer directly, and creates the
+                        elements on demand with the {@code make} function. The
+                        list cannot be modified.
+                        
+                        @param  layout the memory layout of the elements
+                        @param  make   function that creates an element for a struct
+                        @param  <E>    the element type
+                        @return a list view on the elements of this array
+                        @throws IllegalArgumentException if the size of the layout is
+                                not the element size of this array
+                        """)
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariable(e)
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), e))
+                .addParameter(MemoryLayout.class, "layout")
+                .addParameter(ParameterizedTypeName.get(
+                        ClassName.get(java.util.function.Function.class),
+                        ClassName.get(MemorySegment.class), e), "make")
+                .addStatement("return $T.arrayView(this, layout, make)",
+                        ClassNames.ARRAY_VIEWS)
+                .build();
+    }
+
+    private MethodSpec asSegment(String function, String elementSize) {
+        return MethodSpec.methodBuilder("asSegment")
+                .addJavadoc("""
+                        Get a memory segment of the data buffer of this array. The
+                        size of the segment is the length of the array times the
+                        $L. The segment is only valid until the array is modified
+                        or freed.
+                        
+                        @return a memory segment of the data buffer
+                        """, elementSize)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(MemorySegment.class)
+                .addStatement("return $T.$L(this)",
+                        ClassNames.ARRAY_VIEWS,
+                        function)
+                .build();
+    }
+
+    private MethodSpec byteArrayToByteArray() {
+        return MethodSpec.methodBuilder("toByteArray")
+                .addJavadoc("""
+                        Copy the contents of this array into a Java byte array.
+                        
+                        @return a new byte array with the contents of this array
+                        """)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(byte[].class)
+                .addStatement("return asSegment().toArray($T.JAVA_BYTE)",
+                        ValueLayout.class)
+                .build();
+    }
+
+    private MethodSpec bytesAsSegment() {
+        return MethodSpec.methodBuilder("asSegment")
+                .addJavadoc("""
+                        Get a read-only memory segment of the data in this
+                        {@code GBytes}, without copying it. The segment holds a
+                        reference on this {@code GBytes}, so the data remains valid
+                        as long as the segment is reachable.
+                        
+                        @return a read-only memory segment of the data
+                        """)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(MemorySegment.class)
+                .addStatement("return $T.segment(this)", ClassNames.BYTES_VIEWS)
+                .build();
+    }
+
+    private MethodSpec bytesAsByteBuffer() {
+        return MethodSpec.methodBuilder("asByteBuffer")
+                .addJavadoc("""
+                        Get a read-only direct {@link java.nio.ByteBuffer} of the
+                        data in this {@code GBytes}, without copying it. The buffer
+                        holds a reference on this {@code GBytes}, so the data
+                        remains valid as long as the buffer is reachable.
+                        
+                        @return a read-only ByteBuffer of the data
+                        """)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ByteBuffer.class)
+                .addStatement("return $T.byteBuffer(this)", ClassNames.BYTES_VIEWS)
+                .build();
+    }
+
+    private MethodSpec bytesFromSegment() {
+        var spec = MethodSpec.methodBuilder("fromSegment")
+                .addJavadoc("""
+                        Create a new {@code GBytes} that wraps the provided native
+                        memory segment, without copying the contents. The segment
+                        is kept reachable until the {@code GBytes} is freed. When
+                        the segment is not allocated with an automatic arena, the
+                        arena must not be closed before the {@code GBytes} is
+                        freed. The contents of the segment must not be modified
+                        afterwards.
+                        
+                        @param  data the native memory segment to wrap
+                        @return a new {@code GBytes} that wraps the segment
+                        @throws IllegalArgumentException if the segment is not a
+                                native segment
+                        """)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(rec.typeName())
+                .addParameter(MemorySegment.class, "data")
+                .addStatement("var _instance = new $T($T.wrap(data))",
+                        rec.typeName(), ClassNames.BYTES_VIEWS)
+                .addStatement("$T.takeOwnership(_instance)",
+                        ClassNames.MEMORY_CLEANER);
+        new RegisteredTypeGenerator(rec).setFreeFunc(spec, "_instance", null);
+        return spec.addStatement("return _instance").build();
+    }
 }
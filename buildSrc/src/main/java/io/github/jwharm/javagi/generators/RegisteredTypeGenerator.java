@@ -30,7 +30,9 @@ import io.github.jwharm.javagi.util.GeneratedAnnotationBuilder;
 import javax.lang.model.element.Modifier;
 
 import java.lang.foreign.MemorySegment;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static io.github.jwharm.javagi.util.CollectionUtils.filter;
 import static java.util.function.Predicate.not;
@@ -76,6 +78,13 @@ public class RegisteredTypeGenerator {
         for (Function f : filter(rt.children(), Function.class)) {
             if (!f.skip()) {
                 builder.addMethod(new MethodGenerator(f).generate());
+                if (new MethodGenerator(f).hasPrimitiveOutOverload())
+                    builder.addMethod(new MethodGenerator(f)
+                                                .generatePrimitiveOutOverload());
+                if (new MethodGenerator(f).hasListViewOverload())
+                    builder.addMethod(new MethodGenerator(f,
+                                              MethodGenerator.getName(f) + "View")
+                                                .generateListViewOverload());
                 if (f.hasBitfieldParameters())
                     builder.addMethod(new CallableGenerator(f)
                                                 .generateBitfieldOverload());
@@ -98,6 +107,13 @@ public class RegisteredTypeGenerator {
         for (Method m : filter(rt.children(), Method.class)) {
             if (!m.skip()) {
                 builder.addMethod(new MethodGenerator(m).generate());
+                if (new MethodGenerator(m).hasPrimitiveOutOverload())
+                    builder.addMethod(new MethodGenerator(m)
+                                                .generatePrimitiveOutOverload());
+                if (new MethodGenerator(m).hasListViewOverload())
+                    builder.addMethod(new MethodGenerator(m,
+                                              MethodGenerator.getName(m) + "View")
+                                                .generateListViewOverload());
                 if (m.hasBitfieldParameters())
                     builder.addMethod(new CallableGenerator(m)
                                                 .generateBitfieldOverload());
@@ -183,7 +199,9 @@ public class RegisteredTypeGenerator {
     }
 
     public boolean hasDowncallHandles() {
-        return (! listNamedFunctions().isEmpty());
+        return (! listNamedFunctions().isEmpty())
+                || (! listVirtualMethods().isEmpty())
+                || (! listSignals().isEmpty());
     }
 
     public TypeSpec downcallHandlesClass() {
@@ -203,9 +221,22 @@ public class RegisteredTypeGenerator {
             }
         }
 
+        for (VirtualMethod vm : listVirtualMethods()) {
+            var gen = new MethodGenerator(vm);
+            var spec = gen.generateVirtualDowncallHandle(Modifier.STATIC, Modifier.FINAL);
+            builder.addField(spec);
+        }
+
+        for (Signal signal : listSignals())
+            builder.addField(new SignalGenerator(signal).generateSignalNameConstant());
+
         return builder.build();
     }
 
+    private List<Signal> listSignals() {
+        return filter(rt.children(), Signal.class);
+    }
+
     private List<Callable> listNamedFunctions() {
         return rt.children().stream()
                 .filter(c -> c instanceof Constructor
@@ -216,6 +247,22 @@ public class RegisteredTypeGenerator {
                 .toList();
     }
 
+    /*
+     * List the virtual methods that are called with a function pointer: the
+     * virtual methods that are generated as Java methods, and the virtual
+     * methods that are invoked by a generated (invoker) method.
+     */
+    private List<VirtualMethod> listVirtualMethods() {
+        Map<String, VirtualMethod> vms = new LinkedHashMap<>();
+        for (Node node : rt.children()) {
+            if (node instanceof Method m && !m.skip() && m.invokerFor() != null)
+                vms.putIfAbsent(m.invokerFor().name(), m.invokerFor());
+            else if (node instanceof VirtualMethod vm && !vm.skip())
+                vms.putIfAbsent(vm.name(), vm);
+        }
+        return List.copyOf(vms.values());
+    }
+
     public void setFreeFunc(MethodSpec.Builder builder,
                             String identifier,
                             TypeName className) {
@@ -30,9 +30,11 @@ import javax.lang.model.element.Modifier;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
 
 import static io.github.jwharm.javagi.util.Conversions.getValueLayout;
 import static io.github.jwharm.javagi.util.Conversions.toCamelCase;
+import static io.github.jwharm.javagi.util.Conversions.toJavaConstantUpperCase;
 import static java.util.Comparator.comparing;
 
 public class SignalGenerator {
@@ -49,6 +51,45 @@ public class SignalGenerator {
         this.generator = new CallableGenerator(signal);
     }
 
+    /*
+     * The name of the constant with the native signal name, in the helper
+     * class of the type that declares the signal
+     */
+    static String signalNameConstant(Signal signal) {
+        return "SIGNAL_" + toJavaConstantUpperCase(signal.name().replace('-', '_'));
+    }
+
+    /**
+     * Generate a constant with the signal name, allocated once as a native
+     * string in the global arena.
+     */
+    public FieldSpec generateSignalNameConstant() {
+        return FieldSpec.builder(MemorySegment.class, signalNameConstant(signal),
+                        Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.allocateNativeString($S, $T.global())",
+                        ClassNames.INTEROP,
+                        signal.name(),
+                        Arena.class)
+                .build();
+    }
+
+    // Statement that declares the "_name" variable with the native signal name
+    private void declareName(MethodSpec.Builder builder) {
+        ClassName helper = ((RegisteredType) signal.parent()).helperClass();
+        if (signal.detailed())
+            builder.addStatement("$T _name = (detail == null || detail.isBlank()) ? $T.$L : $T.allocateNativeString($S + detail, _arena)",
+                    MemorySegment.class,
+                    helper,
+                    signalNameConstant(signal),
+                    ClassNames.INTEROP,
+                    signal.name() + "::");
+        else
+            builder.addStatement("$T _name = $T.$L",
+                    MemorySegment.class,
+                    helper,
+                    signalNameConstant(signal));
+    }
+
     public TypeSpec generateFunctionalInterface() {
         return new ClosureGenerator(signal).generateFunctionalInterface();
     }
@@ -77,34 +118,34 @@ public class SignalGenerator {
                             .addAnnotation(Nullable.class)
                             .build());
 
-        builder.addParameter(signal.typeName(), "handler")
-                .beginControlFlow("try ($1T _arena = $1T.ofConfined())",
-                        Arena.class)
-                .beginControlFlow("try");
+        builder.addParameter(signal.typeName(), "handler");
 
+        // An arena is only needed to allocate a detailed signal name
         if (signal.detailed())
-            builder.addStatement("var _name = $T.allocateNativeString($S + ((detail == null || detail.isBlank()) ? $S : ($S + detail)), _arena)",
-                    ClassNames.INTEROP,
-                    signal.name(),
-                    "",
-                    "::");
-        else
-            builder.addStatement("var _name = $T.allocateNativeString($S, _arena)",
-                    ClassNames.INTEROP,
-                    signal.name());
-
-        return builder.addStatement("var _callbackArena = $T.ofConfined()",
-                        Arena.class)
-                .addStatement("var _callback = handler.toCallback(_callbackArena)")
-                .addStatement("var _result = (long) $1T.g_signal_connect_data.invokeExact($Zhandle(), _name, _callback, $2T.NULL, $2T.NULL, 0)",
+            builder.beginControlFlow("try (var _arena = $T.open())",
+                    ClassNames.CALL_ARENA);
+
+        // All connections of this signal share one upcall stub. The handler
+        // is registered in a table and passed as user_data.
+        builder.beginControlFlow("try");
+        declareName(builder);
+        builder.addCode(generator.generateFunctionDescriptorDeclaration())
+                .addStatement("var _callback = $T.stub($T.lookup(), $T.class, _fdesc)",
+                        ClassNames.SIGNAL_HANDLERS,
+                        MethodHandles.class,
+                        signal.typeName())
+                .addStatement("var _result = (long) $1T.g_signal_connect_data.invokeExact($Zhandle(), _name, _callback, $2T.register(handler), $2T.destroyNotify(), 0)",
                         ClassNames.SIGNALS,
-                        MemorySegment.class)
-                .addStatement("return new SignalConnection<>(handle(), _result, _callbackArena)")
+                        ClassNames.SIGNAL_HANDLERS)
+                .addStatement("return new SignalConnection<>(handle(), _result)")
                 .nextControlFlow("catch (Throwable _err)")
                 .addStatement("throw new AssertionError(_err)")
-                .endControlFlow()
-                .endControlFlow()
-                .build();
+                .endControlFlow();
+
+        if (signal.detailed())
+            builder.endControlFlow();
+
+        return builder.build();
     }
 
     public boolean emitMethodExists() {
@@ -147,8 +188,8 @@ public class SignalGenerator {
         generator.generateMethodParameters(builder, false, true);
 
         // Arena for memory allocations
-        builder.beginControlFlow("try ($1T _arena = $1T.ofConfined())",
-                Arena.class);
+        builder.beginControlFlow("try (var _arena = $T.open())",
+                ClassNames.CALL_ARENA);
 
         // Parameter preprocessing
         if (signal.parameters() != null)
@@ -166,19 +207,8 @@ public class SignalGenerator {
                     ValueLayout.class,
                     getValueLayout(returnValue.anyType()));
 
-        // Allocate memory for signal name
-        if (signal.detailed())
-            builder.addStatement("$T _name = $T.allocateNativeString($S + ((detail == null || detail.isBlank()) ? $S : ($S + detail)), _arena)",
-                    MemorySegment.class,
-                    ClassNames.INTEROP,
-                    signal.name(),
-                    "",
-                    "::");
-        else
-            builder.addStatement("$T _name = $T.allocateNativeString($S, _arena)",
-                    MemorySegment.class,
-                    ClassNames.INTEROP,
-                    signal.name());
+        // Native signal name
+        declareName(builder);
 
         // Create an array with the signal arguments
         PartialStatement varargs = PartialStatement.of("Object[] _args = ");
@@ -41,9 +41,20 @@ class TypedValueGenerator {
     protected final Array array;
     protected final Type type;
     protected final RegisteredType target;
+    protected final boolean listView;
 
     TypedValueGenerator(TypedValue v) {
+        this(v, false);
+    }
+
+    /**
+     * Create a generator for a typed value. When {@code listView} is true,
+     * returned arrays of proxy objects that are marked with the
+     * "java-gi-list-view" attribute are marshaled to a List view.
+     */
+    TypedValueGenerator(TypedValue v, boolean listView) {
         this.v = v;
+        this.listView = listView;
         this.array = v.anyType() instanceof Array a ? a : null;
         this.type = v.anyType() instanceof Type t ? t : null;
         this.target = type != null ? type.get() : null;
@@ -85,6 +96,10 @@ class TypedValueGenerator {
     }
 
     TypeName getType(boolean setOfBitfield) {
+        if (listView())
+            return ParameterizedTypeName.get(ClassName.get(List.class),
+                                             array.anyType().typeName());
+
         if (type != null && type.isActuallyAnArray())
             return ArrayTypeName.of(getType(type, setOfBitfield));
 
@@ -100,10 +115,13 @@ class TypedValueGenerator {
     }
 
     private TypeName getType(AnyType anyType, boolean setOfBitfield) {
-        // Wrap Bitfield return value into a Set<>
+        // Wrap Bitfield value into a Flags<> when it is passed from native
+        // code to Java, and into a Set<> when it is passed from Java
         TypeName typeName = anyType.typeName();
         typeName = (setOfBitfield && v.isBitfield())
-                ? ParameterizedTypeName.get(ClassName.get(Set.class), typeName)
+                ? ParameterizedTypeName.get(
+                        bitfieldToJava() ? ClassNames.FLAGS : ClassName.get(Set.class),
+                        typeName)
                 : typeName;
 
         if (v instanceof Parameter p && p.isOutParameter())
@@ -117,6 +135,25 @@ class TypedValueGenerator {
         return typeName;
     }
 
+    /*
+     * Bitfield values that are passed from native code to Java are always
+     * marshaled to an immutable Flags instance: return values and
+     * out-parameters of downcalls, and parameters of upcalls. Bitfield
+     * values that are passed from Java to native code accept any Set.
+     */
+    private boolean bitfieldToJava() {
+        return switch (v) {
+            case ReturnValue rv -> !(rv.parent() instanceof Callback
+                                        || rv.parent() instanceof Signal);
+            case Parameter p when p.parent().parent() instanceof Callback
+                                || p.parent().parent() instanceof Signal ->
+                    p.direction() != Direction.OUT
+                            && p.direction() != Direction.INOUT;
+            case Parameter p -> p.direction() == Direction.OUT;
+            default -> false;
+        };
+    }
+
     String getName() {
         return "...".equals(v.name())
                 ? "varargs"
@@ -192,7 +229,7 @@ class TypedValueGenerator {
             case Callback _ -> {
                 String arena = switch(Scope.ofTypedValue(v)) {
                     case null -> "$arena:T.global()";
-                    case BOUND -> "$interop:T.attachArena($arena:T.ofConfined(), this)";
+                    case BOUND -> "$boundArenas:T.forOwner(this)";
                     case CALL -> "_arena";
                     case NOTIFIED, ASYNC -> "_" + identifier + "Scope";
                     case FOREVER -> "$arena:T.global()";
@@ -200,7 +237,7 @@ class TypedValueGenerator {
                 yield PartialStatement.of(
                         identifier + ".toCallback(" + arena + ")",
                         "arena", Arena.class,
-                        "interop", ClassNames.INTEROP);
+                        "boundArenas", ClassNames.BOUND_ARENAS);
             }
             case Enumeration _ -> PartialStatement.of(identifier + ".getValue()");
             default -> PartialStatement.of(identifier + ".handle()");
@@ -229,6 +266,13 @@ class TypedValueGenerator {
                 ? primitiveClassName(((Alias) target).type().javaType())
                 : "";
 
+        // Critical functions can access the Java heap: pass primitive arrays
+        // without copying them to native memory
+        if (v instanceof Parameter p && p.isHeapArray())
+            return PartialStatement.of(
+                    "$memorySegment:T.ofArray(" + identifier + ")",
+                    "memorySegment", MemorySegment.class);
+
         if (isFlaggedType || isPrimitiveAlias) {
             return PartialStatement.of(
                     "$interop:T.allocateNativeArray($" + targetTypeTag + ":T.get" + primitiveClassName + "Values(" + identifier + "), "
@@ -276,6 +320,13 @@ class TypedValueGenerator {
                     "$interop:T.getStrvArrayFrom(" + identifier + ", " + doFree() + ")",
                     "interop", ClassNames.INTEROP);
 
+        if (listView())
+            return marshalNativeToJavaList(
+                    (Type) array.anyType(),
+                    array.sizeExpression(upcall),
+                    identifier
+            );
+
         if (array != null && array.anyType() instanceof Type arrayType)
             return marshalNativeToJavaArray(
                     arrayType,
@@ -286,6 +337,78 @@ class TypedValueGenerator {
         return PartialStatement.of("null /* unsupported */");
     }
 
+    /*
+     * Returned arrays of proxy objects can be marshaled to a List view,
+     * when the function is marked with the "java-gi-list-view" attribute.
+     * Arrays of structs must have a known size.
+     */
+    boolean listView() {
+        return listView
+                && v instanceof ReturnValue rv
+                && rv.listView()
+                && array != null
+                && array.name() == null
+                && array.anyType() instanceof Type t
+                && (t.get() instanceof Class
+                        || t.get() instanceof Interface
+                        || t.get() instanceof Boxed
+                        || t.get() instanceof Union
+                        || t.get() instanceof Record)
+                && (t.isPointer() || array.sizeExpression(false) != null);
+    }
+
+    private PartialStatement marshalNativeToJavaList(Type type,
+                                                     String size,
+                                                     String identifier) {
+        RegisteredType target = type.get();
+        String targetTypeTag = type.toTypeTag();
+        String free = v instanceof ReturnValue rv
+                && rv.transferOwnership() != TransferOwnership.NONE
+                ? "true" : "false";
+
+        // Keep the instance that owns the array alive
+        String owner = listOwner();
+
+        if (target instanceof Record && (!type.isPointer()))
+            return PartialStatement.of(
+                    "$interop:T.getStructListFrom(" + identifier + ", (int) " + size + ", ")
+                    .add(target.constructorName())
+                    .add(", $" + targetTypeTag + ":T.getMemoryLayout(), " + owner + ", " + free + ")",
+                            "interop", ClassNames.INTEROP,
+                            targetTypeTag, target.typeName());
+
+        return PartialStatement.of(
+                "$interop:T.getProxyListFrom(" + identifier
+                        + (size == null ? "" : ", (int) " + size) + ", ")
+                .add(target.constructorName())
+                .add(", " + owner + ", " + free + ")",
+                        "interop", ClassNames.INTEROP);
+    }
+
+    /*
+     * The instance that owns a returned array: "this" for (virtual) methods,
+     * or the first parameter that is a proxy instance for functions, for
+     * example the hb_buffer_t parameter of hb_buffer_get_glyph_infos.
+     */
+    private String listOwner() {
+        if (v.parent() instanceof Method || v.parent() instanceof VirtualMethod)
+            return "this";
+
+        if (v.parent() instanceof Callable c && c.parameters() != null)
+            for (Parameter p : c.parameters().parameters())
+                if (!p.isOutParameter()
+                        && p.anyType() instanceof Type t
+                        && t.isPointer()
+                        && (t.get() instanceof Class
+                                || t.get() instanceof Interface
+                                || t.get() instanceof Boxed
+                                || t.get() instanceof Union
+                                || t.get() instanceof Record))
+                    return toJavaIdentifier(p.name());
+
+        return "null";
+    }
+
     PartialStatement marshalNativeToJava(Type type,
                                          String identifier,
                                          boolean upcall) {
@@ -295,6 +418,12 @@ class TypedValueGenerator {
         boolean isTypeClass = target instanceof Record
                                     && "TypeClass".equals(target.name());
 
+        if (type.isString() && v instanceof ReturnValue rv && rv.interned()
+                && rv.transferOwnership() == TransferOwnership.NONE)
+            return PartialStatement.of(
+                    "$interop:T.getInternedStringFrom(" + identifier + ")",
+                    "interop", ClassNames.INTEROP);
+
         if (type.isString())
             return PartialStatement.of(
                     "$interop:T.getStringFrom(" + identifier + ", " + free + ")",
@@ -302,10 +431,10 @@ class TypedValueGenerator {
 
         if (target instanceof Bitfield bitfield)
             return PartialStatement.of(
-                    "$interop:T.intToEnumSet($" + targetTypeTag + ":T.class, "
+                    "$flags:T.of($" + targetTypeTag + ":T.class, "
                             + "$" + targetTypeTag + ":T::of, "
                             + identifier + ")",
-                    "interop", ClassNames.INTEROP,
+                    "flags", ClassNames.FLAGS,
                     targetTypeTag, bitfield.typeName());
 
         if (target instanceof Enumeration)
@@ -425,7 +554,7 @@ class TypedValueGenerator {
 
             if (type.isPrimitive())
                 return PartialStatement.of(
-                        "$interop:T.get" + primitive + "ArrayFrom(" + identifier + ", _arena, " + free + ")",
+                        "$interop:T.get" + primitive + "ArrayFrom(" + identifier + ", " + free + ")",
                         "interop", ClassNames.INTEROP);
 
             if (target instanceof Record && (! type.isPointer()) &&
@@ -472,7 +601,7 @@ class TypedValueGenerator {
 
         if (type.isPrimitive() && array != null && array.anyType() instanceof Type)
             return PartialStatement.of(
-                    "$interop:T.get" + primitive + "ArrayFrom(" + identifier + ", " + size + ", _arena, " + free + ")",
+                    "$interop:T.get" + primitive + "ArrayFrom(" + identifier + ", " + size + ", " + free + ")",
                     "interop", ClassNames.INTEROP,
                     "arrayType", toJavaQualifiedType(array.name(), array.namespace()));
 
@@ -85,6 +85,15 @@ public sealed interface Callable
         return false;
     }
 
+    /**
+     * Return true when the callable is marked (in a patch) as a critical
+     * function: a short-running function without callbacks, that can be
+     * passed heap-allocated arrays directly.
+     */
+    default boolean critical() {
+        return attrBool("java-gi-critical", false);
+    }
+
     /**
      * Return true when there is one or more bitfield parameters.
      * An alias for a bitfield is counted as a bitfield as well.
@@ -20,6 +20,7 @@
 package io.github.jwharm.javagi.gir;
 
 import static io.github.jwharm.javagi.util.CollectionUtils.*;
+import static io.github.jwharm.javagi.util.Conversions.toJavaBaseType;
 
 import java.util.List;
 import java.util.Map;
@@ -92,8 +93,29 @@ public final class Parameter extends GirElement implements TypedValue {
         );
     }
 
+    /**
+     * Return true when this parameter is a primitive array that is passed to
+     * a critical function as a heap segment, without copying it to native
+     * memory.
+     */
+    public boolean isHeapArray() {
+        return direction() != Direction.OUT
+                && direction() != Direction.INOUT
+                && transferOwnership() != TransferOwnership.FULL
+                && anyType() instanceof Array a
+                && !a.zeroTerminated()
+                && a.anyType() instanceof Type t
+                && t.isPrimitive()
+                && !"boolean".equals(toJavaBaseType(t.name()))
+                && parent().parent() instanceof Callable c
+                && c.critical();
+    }
+
     @Override
     public boolean allocatesMemory() {
+        if (isHeapArray())
+            return false;
+
         if (TypedValue.super.allocatesMemory() || isOutParameter())
             return true;
 
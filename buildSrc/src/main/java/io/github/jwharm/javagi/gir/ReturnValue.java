@@ -50,6 +50,25 @@ public final class ReturnValue extends GirElement implements TypedValue {
         return attr("java-gi-override-value");
     }
 
+    /**
+     * Whether the returned string is never modified or freed (for example
+     * because it is interned by GLib), so it can be cached.
+     */
+    public boolean interned() {
+        return parent() instanceof Callable c
+                && c.attrBool("java-gi-interned", false);
+    }
+
+    /**
+     * Whether an additional method is generated, that marshals a returned
+     * array of proxy objects to a lazy {@code java.util.List} view instead of
+     * a Java array.
+     */
+    public boolean listView() {
+        return parent() instanceof Callable c
+                && c.attrBool("java-gi-list-view", false);
+    }
+
     public boolean introspectable() {
         return attrBool("introspectable", true);
     }
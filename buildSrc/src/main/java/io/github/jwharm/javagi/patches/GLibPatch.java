@@ -106,6 +106,33 @@ public class GLibPatch implements Patch {
                     f.parameters().withChildren(replacement));
         }
 
+        /*
+         * Quark strings and interned strings are never freed. Mark the
+         * functions that return them, so the returned strings are cached
+         * instead of decoded again on every call.
+         */
+        if (element instanceof Callable c
+                && c.callableAttrs().cIdentifier() instanceof String id
+                && List.of("g_quark_to_string",
+                           "g_intern_string",
+                           "g_intern_static_string")
+                       .contains(id))
+            return element.withAttribute("java-gi-interned", "1");
+
+        /*
+         * These functions only read the array argument during the call. They
+         * are linked as critical functions, so Java arrays are passed
+         * directly instead of being copied to native memory.
+         */
+        if (element instanceof Callable c
+                && c.callableAttrs().cIdentifier() instanceof String id
+                && List.of("g_checksum_update",
+                           "g_compute_checksum_for_data",
+                           "g_base64_encode",
+                           "g_bytes_new")
+                       .contains(id))
+            return element.withAttribute("java-gi-critical", "1");
+
         /*
          * GLib.List and GLib.SList are not generated from the gir data.
          * Java-GI provides custom List and SList classes that implement
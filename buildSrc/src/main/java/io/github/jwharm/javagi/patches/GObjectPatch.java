@@ -86,6 +86,33 @@ public class GObjectPatch implements Patch {
                 && "g_type_module_use".equals(m.callableAttrs().cIdentifier()))
             return m.withAttribute("name", "use_type_module");
 
+        /*
+         * Type names, signal names and property names are interned strings
+         * that are never freed. Mark the functions that return them, so the
+         * returned strings are cached instead of decoded again on every call.
+         */
+        if (element instanceof Callable c
+                && c.callableAttrs().cIdentifier() instanceof String id
+                && List.of("g_type_name",
+                           "g_type_name_from_instance",
+                           "g_type_name_from_class",
+                           "g_signal_name",
+                           "g_param_spec_get_name")
+                       .contains(id))
+            return element.withAttribute("java-gi-interned", "1");
+
+        /*
+         * Generate an additional method that returns the list of properties
+         * as a List view, that only creates ParamSpec instances for the
+         * properties that are read.
+         */
+        if (element instanceof Callable c
+                && c.callableAttrs().cIdentifier() instanceof String id
+                && List.of("g_object_class_list_properties",
+                           "g_object_interface_list_properties")
+                       .contains(id))
+            return element.withAttribute("java-gi-list-view", "1");
+
         /*
          * Make GWeakRef generic (replacing all GObject arguments with generic
          * type {@code <T extends GObject>}.
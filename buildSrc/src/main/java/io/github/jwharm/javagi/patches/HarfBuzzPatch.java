@@ -64,6 +64,33 @@ public class HarfBuzzPatch implements Patch {
             element = rt.withAttribute("name", newName);
         }
 
+        /*
+         * Adding text to a buffer copies the text. Link these functions as
+         * critical functions, so Java arrays are passed directly instead of
+         * being copied to native memory first.
+         */
+        if (element instanceof Callable c
+                && c.callableAttrs().cIdentifier() instanceof String id
+                && List.of("hb_buffer_add_utf8",
+                           "hb_buffer_add_utf16",
+                           "hb_buffer_add_utf32",
+                           "hb_buffer_add_latin1",
+                           "hb_buffer_add_codepoints")
+                       .contains(id))
+            return element.withAttribute("java-gi-critical", "1");
+
+        /*
+         * A shaped buffer can contain many glyphs. Generate additional
+         * methods that return the glyph infos and positions as a List view,
+         * that only creates instances for the glyphs that are read.
+         */
+        if (element instanceof Callable c
+                && c.callableAttrs().cIdentifier() instanceof String id
+                && List.of("hb_buffer_get_glyph_infos",
+                           "hb_buffer_get_glyph_positions")
+                       .contains(id))
+            return element.withAttribute("java-gi-list-view", "1");
+
         if (element instanceof Namespace ns) {
             /*
              * This function has different parameter attributes on macOS.
@@ -0,0 +1,121 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.jwharm.javagi.benchmarks;
+
+import io.github.jwharm.javagi.interop.CallArena;
+import io.github.jwharm.javagi.interop.Interop;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the allocation of call-scoped native memory, the way a generated
+ * method allocates a marshaled String argument and an out-parameter
+ * pointer. A confined arena calls malloc and free for every allocation; a
+ * {@link CallArena} slices the memory from a per-thread block and does not
+ * call malloc, unless the block overflows.
+ * <p>
+ * The {@code nonBlockSegments} counter reports the number of segments with
+ * a different scope than the per-thread block: all segments of the confined
+ * arena, and the segments of a CallArena that were allocated by its
+ * fallback arena. It does not count calls to malloc directly. The GC
+ * profiler ({@code -prof gc}) does not see native allocations, because they
+ * are not on the Java heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CallArenaBenchmark {
+
+    @Param({"16", "16384"})
+    public int length;
+
+    private String string;
+
+    // The scope of the per-thread block of the CallArena
+    private MemorySegment.Scope blockScope;
+
+    /**
+     * Counts the segments that were not sliced from the per-thread block,
+     * per iteration.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long nonBlockSegments;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nonBlockSegments = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        string = "x".repeat(length);
+        try (var _arena = CallArena.open()) {
+            blockScope = _arena.allocate(1).scope();
+        }
+    }
+
+    @Benchmark
+    public long confinedArena(Counters counters) {
+        try (var _arena = Arena.ofConfined()) {
+            return call(_arena, counters);
+        }
+    }
+
+    @Benchmark
+    public long callArena(Counters counters) {
+        try (var _arena = CallArena.open()) {
+            return call(_arena, counters);
+        }
+    }
+
+    @Benchmark
+    public long nestedCallArena(Counters counters) {
+        try (var _arena = CallArena.open()) {
+            try (var _inner = CallArena.open()) {
+                call(_inner, counters);
+            }
+            return call(_arena, counters);
+        }
+    }
+
+    private long call(Arena _arena, Counters counters) {
+        MemorySegment name = Interop.allocateNativeString(string, _arena);
+        MemorySegment _outPointer = _arena.allocate(ValueLayout.JAVA_LONG);
+        count(name, counters);
+        count(_outPointer, counters);
+        _outPointer.set(ValueLayout.JAVA_LONG, 0, name.address());
+        return _outPointer.get(ValueLayout.JAVA_LONG, 0);
+    }
+
+    // Count segments that were not sliced from the per-thread block
+    private void count(MemorySegment segment, Counters counters) {
+        if (!blockScope.equals(segment.scope()))
+            counters.nonBlockSegments++;
+    }
+}
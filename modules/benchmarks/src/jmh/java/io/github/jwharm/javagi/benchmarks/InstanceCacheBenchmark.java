@@ -0,0 +1,58 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.jwharm.javagi.benchmarks;
+
+import io.github.jwharm.javagi.base.Proxy;
+import io.github.jwharm.javagi.gobject.InstanceCache;
+import org.gnome.gio.SimpleAction;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the lookup of a cached Java proxy object for a native GObject.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstanceCacheBenchmark {
+
+    private SimpleAction action;
+    private MemorySegment address;
+
+    @Setup
+    public void setup() {
+        action = new SimpleAction("benchmark", null);
+        address = action.handle();
+    }
+
+    @Benchmark
+    public Proxy get() {
+        return InstanceCache.get(address, SimpleAction::new, true);
+    }
+
+    @Benchmark
+    public Proxy getForType() {
+        return InstanceCache.getForType(address, SimpleAction::new, true);
+    }
+}
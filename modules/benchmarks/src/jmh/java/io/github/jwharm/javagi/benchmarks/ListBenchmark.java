@@ -0,0 +1,70 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.jwharm.javagi.benchmarks;
+
+import io.github.jwharm.javagi.interop.Interop;
+import org.gnome.glib.List;
+import org.gnome.glib.SList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure iteration over a GList and a GSList of strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private List<String> list;
+    private SList<String> slist;
+
+    @Setup
+    public void setup() {
+        list = new List<>(Interop::getStringFrom);
+        slist = new SList<>(Interop::getStringFrom);
+        for (int i = 0; i < size; i++) {
+            list.add("item" + i);
+            slist.add("item" + i);
+        }
+    }
+
+    @Benchmark
+    public int iterateList() {
+        int length = 0;
+        for (String s : list)
+            length += s.length();
+        return length;
+    }
+
+    @Benchmark
+    public int iterateSList() {
+        int length = 0;
+        for (String s : slist)
+            length += s.length();
+        return length;
+    }
+}
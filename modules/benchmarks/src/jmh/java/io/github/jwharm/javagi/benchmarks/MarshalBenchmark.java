@@ -0,0 +1,98 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.jwharm.javagi.benchmarks;
+
+import io.github.jwharm.javagi.interop.Interop;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure marshaling of Strings and arrays between Java and native memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MarshalBenchmark {
+
+    @Param({"8", "256"})
+    public int length;
+
+    private String string;
+    private int[] ints;
+    private String[] strings;
+    private MemorySegment nativeString;
+    private MemorySegment nativeInts;
+    private Arena arena;
+
+    @Setup
+    public void setup() {
+        string = "x".repeat(length);
+        ints = new int[length];
+        strings = new String[length];
+        for (int i = 0; i < length; i++) {
+            ints[i] = i;
+            strings[i] = "item" + i;
+        }
+        arena = Arena.ofShared();
+        nativeString = Interop.allocateNativeString(string, arena);
+        nativeInts = Interop.allocateNativeArray(ints, false, arena);
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public MemorySegment allocateString() {
+        try (var arena = Arena.ofConfined()) {
+            return Interop.allocateNativeString(string, arena);
+        }
+    }
+
+    @Benchmark
+    public String readString() {
+        return Interop.getStringFrom(nativeString);
+    }
+
+    @Benchmark
+    public MemorySegment allocateIntArray() {
+        try (var arena = Arena.ofConfined()) {
+            return Interop.allocateNativeArray(ints, false, arena);
+        }
+    }
+
+    @Benchmark
+    public int[] readIntArray() {
+        return Interop.getIntegerArrayFrom(nativeInts, length, false);
+    }
+
+    @Benchmark
+    public MemorySegment allocateStringArray() {
+        try (var arena = Arena.ofConfined()) {
+            return Interop.allocateNativeArray(strings, true, arena);
+        }
+    }
+}
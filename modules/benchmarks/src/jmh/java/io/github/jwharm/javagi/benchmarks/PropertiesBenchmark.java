@@ -0,0 +1,57 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.jwharm.javagi.benchmarks;
+
+import io.github.jwharm.javagi.gobject.types.Properties;
+import org.gnome.gio.Application;
+import org.gnome.gio.ApplicationFlags;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure reading and writing GObject properties by name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertiesBenchmark {
+
+    private Application app;
+
+    @Setup
+    public void setup() {
+        app = new Application("io.github.jwharm.javagi.Benchmark",
+                ApplicationFlags.DEFAULT_FLAGS);
+    }
+
+    @Benchmark
+    public Object getProperty() {
+        return Properties.getProperty(app, "application-id");
+    }
+
+    @Benchmark
+    public void setProperty() {
+        Properties.setProperty(app, "application-id",
+                "io.github.jwharm.javagi.Benchmark");
+    }
+}
@@ -0,0 +1,94 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.jwharm.javagi.benchmarks;
+
+import io.github.jwharm.javagi.gobject.annotations.GType;
+import io.github.jwharm.javagi.gobject.annotations.RegisteredType;
+import io.github.jwharm.javagi.gobject.annotations.Signal;
+import io.github.jwharm.javagi.gobject.types.Signals;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.gio.Application;
+import org.gnome.gio.ApplicationFlags;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Measure upcalls from native code into a Java signal handler, and signal
+ * emission with {@link Signals#emit}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignalBenchmark {
+
+    private Application app;
+    private Emitter emitter;
+    private int count;
+
+    @Setup
+    public void setup() {
+        app = new Application("io.github.jwharm.javagi.Benchmark",
+                ApplicationFlags.DEFAULT_FLAGS);
+        app.onNotify("application-id", _ -> count++);
+
+        emitter = GObject.newInstance(Emitter.getType());
+        emitter.connect("tick", (Emitter.Tick) value -> count += value);
+    }
+
+    // g_object_notify() runs the Java "notify" signal handler (an upcall)
+    @Benchmark
+    public int upcall() {
+        app.notify("application-id");
+        return count;
+    }
+
+    @Benchmark
+    public int emit() {
+        Signals.emit(emitter, "tick", 1);
+        return count;
+    }
+
+    /**
+     * GObject-derived class with a custom signal.
+     */
+    @RegisteredType(name="JavaGiBenchmarkEmitter")
+    public static class Emitter extends GObject {
+        private static final Type gtype = Types.register(Emitter.class);
+
+        @GType
+        public static Type getType() {
+            return gtype;
+        }
+
+        public Emitter(MemorySegment address) {
+            super(address);
+        }
+
+        @Signal
+        public interface Tick extends IntConsumer {}
+    }
+}
@@ -0,0 +1,47 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.test.gio;
+
+import io.github.jwharm.javagi.gobject.InstanceCache;
+import org.gnome.gio.SimpleAction;
+import org.gnome.gobject.GObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check that the same Java instance is returned for a native object, and
+ * that the lookup is counted as a cache hit.
+ */
+public class InstanceCacheTest {
+
+    @Test
+    public void sameInstance() {
+        SimpleAction action = new SimpleAction("test", null);
+        long hits = InstanceCache.hits();
+
+        GObject result = (GObject) InstanceCache.get(
+                action.handle(), SimpleAction::new, true);
+
+        assertSame(action, result);
+        assertTrue(InstanceCache.hits() > hits);
+        assertTrue(InstanceCache.size() > 0);
+    }
+}
@@ -20,13 +20,16 @@
 package io.github.jwharm.javagi.test.gio;
 
 import io.github.jwharm.javagi.gobject.SignalConnection;
+import io.github.jwharm.javagi.gobject.types.SignalHandlers;
 import org.gnome.gio.Application;
 import org.gnome.gio.ApplicationFlags;
 import org.gnome.gobject.GObject;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -74,4 +77,23 @@ public class SignalTest {
         app.setApplicationId("test.id3");
         assertFalse(success.get());
     }
+
+    @Test
+    public void sharedUpcallStub() {
+        var count = new AtomicInteger(0);
+        Application app = new Application("test.id1", ApplicationFlags.DEFAULT_FLAGS);
+        int handlers = SignalHandlers.connectedHandlers();
+
+        // Both handlers are invoked through the same upcall stub
+        var signal1 = app.onNotify("application-id", paramSpec -> count.incrementAndGet());
+        var signal2 = app.onNotify("application-id", paramSpec -> count.addAndGet(10));
+        assertEquals(handlers + 2, SignalHandlers.connectedHandlers());
+        app.setApplicationId("test.id2");
+        assertEquals(11, count.get());
+
+        // Disconnecting releases the handler
+        signal1.disconnect();
+        signal2.disconnect();
+        assertEquals(handlers, SignalHandlers.connectedHandlers());
+    }
 }
@@ -0,0 +1,80 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import java.lang.foreign.ValueLayout;
+
+/**
+ * An out-parameter for gboolean values. The value is stored in native memory
+ * that is allocated once, when the {@code BooleanOut} is created. Methods that
+ * have an overload with a {@code BooleanOut} parameter write the result directly
+ * into this memory, so the same instance can be reused for repeated calls
+ * without allocating or boxing.
+ * <p>
+ * A {@code BooleanOut} is also an {@code Out<Boolean>}, so it can be passed to all
+ * methods that expect an {@code Out<Boolean>}.
+ */
+public final class BooleanOut extends PrimitiveOut<Boolean> {
+
+    /**
+     * Create a BooleanOut with initial value {@code false}.
+     */
+    public BooleanOut() {
+        super(ValueLayout.JAVA_INT);
+    }
+
+    /**
+     * Create a BooleanOut and set the initial value.
+     *
+     * @param value the initial value
+     */
+    public BooleanOut(boolean value) {
+        this();
+        setBoolean(value);
+    }
+
+    /**
+     * Get the value from the out-parameter.
+     *
+     * @return the value of the out-parameter
+     */
+    public boolean getBoolean() {
+        return segment().get(ValueLayout.JAVA_INT, 0) != 0;
+    }
+
+    /**
+     * Set the parameter to the provided value.
+     *
+     * @param value the value to set
+     */
+    public void setBoolean(boolean value) {
+        segment().set(ValueLayout.JAVA_INT, 0, value ? 1 : 0);
+    }
+
+    @Override
+    public Boolean get() {
+        return getBoolean();
+    }
+
+    @Override
+    public void set(Boolean value) {
+        setBoolean(value == null ? false : value);
+    }
+}
@@ -0,0 +1,80 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import java.lang.foreign.ValueLayout;
+
+/**
+ * An out-parameter for double values. The value is stored in native memory
+ * that is allocated once, when the {@code DoubleOut} is created. Methods that
+ * have an overload with a {@code DoubleOut} parameter write the result directly
+ * into this memory, so the same instance can be reused for repeated calls
+ * without allocating or boxing.
+ * <p>
+ * A {@code DoubleOut} is also an {@code Out<Double>}, so it can be passed to all
+ * methods that expect an {@code Out<Double>}.
+ */
+public final class DoubleOut extends PrimitiveOut<Double> {
+
+    /**
+     * Create a DoubleOut with initial value {@code 0.0}.
+     */
+    public DoubleOut() {
+        super(ValueLayout.JAVA_DOUBLE);
+    }
+
+    /**
+     * Create a DoubleOut and set the initial value.
+     *
+     * @param value the initial value
+     */
+    public DoubleOut(double value) {
+        this();
+        setDouble(value);
+    }
+
+    /**
+     * Get the value from the out-parameter.
+     *
+     * @return the value of the out-parameter
+     */
+    public double getDouble() {
+        return segment().get(ValueLayout.JAVA_DOUBLE, 0);
+    }
+
+    /**
+     * Set the parameter to the provided value.
+     *
+     * @param value the value to set
+     */
+    public void setDouble(double value) {
+        segment().set(ValueLayout.JAVA_DOUBLE, 0, value);
+    }
+
+    @Override
+    public Double get() {
+        return getDouble();
+    }
+
+    @Override
+    public void set(Double value) {
+        setDouble(value == null ? 0.0 : value);
+    }
+}
@@ -0,0 +1,128 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * An immutable set of bitfield flags, backed by the integer value of the
+ * bitfield. The {@link Set} API is a read-only view on the decoded flags.
+ * <p>
+ * Flags instances are cached per bitfield type and value, so converting a
+ * native bitfield into a Flags instance usually doesn't allocate. Use
+ * {@link #isSet(Enumeration)} or {@link #getValue()} to check flags without
+ * iterating over the set.
+ *
+ * @param <T> the bitfield type
+ */
+public final class Flags<T extends Enum<T> & Enumeration>
+        extends AbstractSet<T> {
+
+    // Number of cached Flags instances per bitfield type (power of two)
+    private static final int CACHE_SIZE = 64;
+
+    private static final ClassValue<Flags<?>[]> CACHES = new ClassValue<>() {
+        @Override
+        protected Flags<?>[] computeValue(Class<?> type) {
+            return new Flags<?>[CACHE_SIZE];
+        }
+    };
+
+    private final int value;
+    private final Set<T> set;
+
+    private Flags(int value, EnumSet<T> set) {
+        this.value = value;
+        this.set = Collections.unmodifiableSet(set);
+    }
+
+    /**
+     * Get the Flags instance for the provided bitfield value. Every set bit
+     * is converted with the {@code make} function.
+     *
+     * @param  <T>      the bitfield type
+     * @param  cls      the class of the bitfield type
+     * @param  make     function that returns the flag for a single bit
+     * @param  bitfield the integer value of the bitfield
+     * @return the (cached) Flags instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Enum<T> & Enumeration>
+    Flags<T> of(Class<T> cls, Function<Integer, T> make, int bitfield) {
+        Flags<?>[] cache = CACHES.get(cls);
+        int index = (bitfield ^ (bitfield >>> 6) ^ (bitfield >>> 16))
+                        & (CACHE_SIZE - 1);
+
+        // The fields of a Flags instance are final, so it can be safely
+        // read from the cache without synchronization.
+        Flags<?> cached = cache[index];
+        if (cached != null && cached.value == bitfield)
+            return (Flags<T>) cached;
+
+        EnumSet<T> set = EnumSet.noneOf(cls);
+        int n = bitfield;
+        int position = 0;
+        while (n != 0) {
+            if ((n & 1) == 1)
+                set.add(make.apply(1 << position));
+            position++;
+            n >>>= 1;
+        }
+
+        var flags = new Flags<>(bitfield, set);
+        cache[index] = flags;
+        return flags;
+    }
+
+    /**
+     * Get the integer value of the bitfield.
+     *
+     * @return the integer value
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Check if all bits of the provided flag are set.
+     *
+     * @param  flag the flag to check
+     * @return true when all bits of the flag are set
+     */
+    public boolean isSet(T flag) {
+        return (value & flag.getValue()) == flag.getValue();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return set.contains(o);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return set.iterator();
+    }
+
+    @Override
+    public int size() {
+        return set.size();
+    }
+}
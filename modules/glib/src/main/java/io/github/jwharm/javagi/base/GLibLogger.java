@@ -23,14 +23,74 @@ import io.github.jwharm.javagi.Constants;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Utility class to call {@link GLib#log} for debug purposes.
+ * <p>
+ * Debug messages are only logged when debug logging is enabled for the
+ * "java-gi" log domain (for example with {@code G_MESSAGES_DEBUG=java-gi}).
+ * This is checked once, and the result is cached, so disabled debug messages
+ * are not formatted and don't call into native code. When the environment
+ * is changed at runtime, call {@link #refresh()}.
+ * <p>
+ * Debug messages can be redirected to a {@link System.Logger} with
+ * {@link #setLogger(System.Logger)}. In that case, the logger decides whether
+ * debug logging is enabled, and GLib is not called at all.
  */
 public final class GLibLogger {
 
+    // Matches a printf() conversion specification
+    private static final Pattern CONVERSION = Pattern.compile(
+            "%([-#+ 0]*[0-9]*(?:\\.[0-9]+)?)(?:hh|h|ll|l|L|q|j|z|t)?([diouxXeEfFgGcsp%])");
+
+    private static volatile System.Logger logger;
+    private static volatile Boolean debugEnabled;
+
     // Prevent instantiation
     private GLibLogger() {}
 
+    /**
+     * Redirect debug messages to the provided {@link System.Logger} instead
+     * of {@link GLib#log}. The messages are logged with level
+     * {@link System.Logger.Level#DEBUG}.
+     *
+     * @param logger the logger to use, or {@code null} to log with GLib
+     */
+    public static void setLogger(System.Logger logger) {
+        GLibLogger.logger = logger;
+        refresh();
+    }
+
+    /**
+     * Check whether debug messages for the "java-gi" log domain will be
+     * logged. The result is cached.
+     *
+     * @return whether debug logging is enabled
+     */
+    public static boolean isDebugEnabled() {
+        Boolean enabled = debugEnabled;
+        if (enabled == null) {
+            System.Logger sink = logger;
+            enabled = sink != null
+                    ? sink.isLoggable(System.Logger.Level.DEBUG)
+                    : !GLib.logWriterDefaultWouldDrop(
+                            LogLevelFlags.LEVEL_DEBUG, Constants.LOG_DOMAIN);
+            debugEnabled = enabled;
+        }
+        return enabled;
+    }
+
+    /**
+     * Clear the cached result of {@link #isDebugEnabled()}, so it will be
+     * checked again. This is necessary after the {@code G_MESSAGES_DEBUG}
+     * environment variable or the level of the logger has been changed.
+     */
+    public static void refresh() {
+        debugEnabled = null;
+    }
+
     /**
      * Call {@link GLib#log} with log domain "java-gi" and level
      * {@link LogLevelFlags#LEVEL_DEBUG}.
@@ -40,9 +100,57 @@ public final class GLibLogger {
      * @param varargs the parameters to insert into the format string
      */
     public static void debug(String message, Object... varargs) {
-        GLib.log(Constants.LOG_DOMAIN,
-                LogLevelFlags.LEVEL_DEBUG,
-                message,
-                varargs);
+        if (!isDebugEnabled())
+            return;
+
+        System.Logger sink = logger;
+        if (sink != null)
+            sink.log(System.Logger.Level.DEBUG, format(message, varargs));
+        else
+            GLib.log(Constants.LOG_DOMAIN,
+                    LogLevelFlags.LEVEL_DEBUG,
+                    message,
+                    varargs);
+    }
+
+    /**
+     * Call {@link GLib#log} with log domain "java-gi" and level
+     * {@link LogLevelFlags#LEVEL_DEBUG}, with one {@code long} parameter
+     * (usually a memory address). This avoids allocating a varargs array
+     * when debug logging is disabled.
+     *
+     * @param message the message format. See the {@code printf()}
+     *                documentation
+     * @param arg     the parameter to insert into the format string
+     */
+    public static void debug(String message, long arg) {
+        if (isDebugEnabled())
+            debug(message, new Object[] {arg});
+    }
+
+    /*
+     * Format a printf() format string with Java's String.format(). Length
+     * modifiers are removed, and conversions that Java doesn't support are
+     * replaced.
+     */
+    private static String format(String message, Object... varargs) {
+        Matcher m = CONVERSION.matcher(message);
+        StringBuilder sb = new StringBuilder();
+        while (m.find()) {
+            String conversion = switch (m.group(2)) {
+                case "i", "u" -> "d";
+                case "p" -> "x";
+                case "F" -> "f";
+                default -> m.group(2);
+            };
+            m.appendReplacement(sb, Matcher.quoteReplacement(
+                    "%" + m.group(1) + conversion));
+        }
+        m.appendTail(sb);
+        try {
+            return String.format(sb.toString(), varargs);
+        } catch (IllegalArgumentException e) {
+            return message;
+        }
     }
 }
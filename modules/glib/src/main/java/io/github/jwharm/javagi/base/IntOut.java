@@ -0,0 +1,80 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import java.lang.foreign.ValueLayout;
+
+/**
+ * An out-parameter for int values. The value is stored in native memory
+ * that is allocated once, when the {@code IntOut} is created. Methods that
+ * have an overload with an {@code IntOut} parameter write the result directly
+ * into this memory, so the same instance can be reused for repeated calls
+ * without allocating or boxing.
+ * <p>
+ * An {@code IntOut} is also an {@code Out<Integer>}, so it can be passed to all
+ * methods that expect an {@code Out<Integer>}.
+ */
+public final class IntOut extends PrimitiveOut<Integer> {
+
+    /**
+     * Create an IntOut with initial value {@code 0}.
+     */
+    public IntOut() {
+        super(ValueLayout.JAVA_INT);
+    }
+
+    /**
+     * Create an IntOut and set the initial value.
+     *
+     * @param value the initial value
+     */
+    public IntOut(int value) {
+        this();
+        setInt(value);
+    }
+
+    /**
+     * Get the value from the out-parameter.
+     *
+     * @return the value of the out-parameter
+     */
+    public int getInt() {
+        return segment().get(ValueLayout.JAVA_INT, 0);
+    }
+
+    /**
+     * Set the parameter to the provided value.
+     *
+     * @param value the value to set
+     */
+    public void setInt(int value) {
+        segment().set(ValueLayout.JAVA_INT, 0, value);
+    }
+
+    @Override
+    public Integer get() {
+        return getInt();
+    }
+
+    @Override
+    public void set(Integer value) {
+        setInt(value == null ? 0 : value);
+    }
+}
@@ -0,0 +1,80 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import java.lang.foreign.ValueLayout;
+
+/**
+ * An out-parameter for long values. The value is stored in native memory
+ * that is allocated once, when the {@code LongOut} is created. Methods that
+ * have an overload with a {@code LongOut} parameter write the result directly
+ * into this memory, so the same instance can be reused for repeated calls
+ * without allocating or boxing.
+ * <p>
+ * A {@code LongOut} is also an {@code Out<Long>}, so it can be passed to all
+ * methods that expect an {@code Out<Long>}.
+ */
+public final class LongOut extends PrimitiveOut<Long> {
+
+    /**
+     * Create a LongOut with initial value {@code 0L}.
+     */
+    public LongOut() {
+        super(ValueLayout.JAVA_LONG);
+    }
+
+    /**
+     * Create a LongOut and set the initial value.
+     *
+     * @param value the initial value
+     */
+    public LongOut(long value) {
+        this();
+        setLong(value);
+    }
+
+    /**
+     * Get the value from the out-parameter.
+     *
+     * @return the value of the out-parameter
+     */
+    public long getLong() {
+        return segment().get(ValueLayout.JAVA_LONG, 0);
+    }
+
+    /**
+     * Set the parameter to the provided value.
+     *
+     * @param value the value to set
+     */
+    public void setLong(long value) {
+        segment().set(ValueLayout.JAVA_LONG, 0, value);
+    }
+
+    @Override
+    public Long get() {
+        return getLong();
+    }
+
+    @Override
+    public void set(Long value) {
+        setLong(value == null ? 0L : value);
+    }
+}
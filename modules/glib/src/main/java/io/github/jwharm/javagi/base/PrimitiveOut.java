@@ -0,0 +1,75 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.jwharm.javagi.base;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Base class of the primitive out-parameter holders ({@link IntOut},
+ * {@link LongOut}, {@link DoubleOut} and {@link BooleanOut}). The value of
+ * a holder is stored in native memory that is allocated once, when the
+ * holder is created.
+ * <p>
+ * The memory for the holders is sliced from shared blocks of native memory,
+ * so creating a holder usually doesn't allocate native memory. A block is
+ * allocated with an automatic arena, and released by the garbage collector
+ * when all holders that use it are unreachable.
+ *
+ * @param <T> the boxed value type
+ */
+abstract class PrimitiveOut<T> extends Out<T> {
+
+    private static final long BLOCK_SIZE = 1024;
+
+    // The current block, and the offset of the next free slot
+    private static MemorySegment block;
+    private static long offset;
+
+    private final MemorySegment segment;
+
+    PrimitiveOut(ValueLayout layout) {
+        segment = allocate(layout);
+    }
+
+    // Slice a zero-initialized slot for a value from the current block
+    private static synchronized MemorySegment allocate(ValueLayout layout) {
+        long alignment = layout.byteAlignment();
+        long start = (offset + alignment - 1) & -alignment;
+        if (block == null || start + layout.byteSize() > BLOCK_SIZE) {
+            block = Arena.ofAuto().allocate(BLOCK_SIZE, Long.BYTES);
+            start = 0;
+        }
+        offset = start + layout.byteSize();
+        return block.asSlice(start, layout.byteSize());
+    }
+
+    /**
+     * Get the native memory segment that holds the value. This is passed to
+     * native functions as the out-parameter pointer.
+     *
+     * @return the memory segment of the out-parameter
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+}
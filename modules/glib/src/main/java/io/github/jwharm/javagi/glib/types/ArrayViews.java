@@ -0,0 +1,207 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.glib.types;
+
+import io.github.jwharm.javagi.base.Proxy;
+import io.github.jwharm.javagi.interop.Interop;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Views on the contents of {@code GPtrArray}, {@code GArray} and
+ * {@code GByteArray} instances. The views read the {@code pdata} or
+ * {@code data} buffer of the array directly, without calling native
+ * functions for every element.
+ * <p>
+ * The {@code GPtrArray}, {@code GArray} and {@code GByteArray} structs all
+ * start with a pointer to the data buffer, followed by the length of the
+ * array (a {@code guint}).
+ */
+public final class ArrayViews {
+
+    private static final long DATA_OFFSET = 0;
+    private static final long LEN_OFFSET = ValueLayout.ADDRESS.byteSize();
+
+    private static final MethodHandle g_array_get_element_size =
+            Interop.downcallHandle("g_array_get_element_size",
+                    FunctionDescriptor.of(ValueLayout.JAVA_INT,
+                            ValueLayout.ADDRESS), false);
+
+    private ArrayViews() {
+    }
+
+    /**
+     * Create a random-access list view on the elements of a
+     * {@code GPtrArray}. The elements are created on demand with the
+     * {@code make} function. The view reads the current length and data
+     * buffer of the array on every access, so it reflects later changes to
+     * the array. The list cannot be modified.
+     *
+     * @param  ptrArray the GPtrArray
+     * @param  make     function that creates an element for a pointer
+     * @param  <E>      the element type
+     * @return a list view on the elements
+     */
+    public static <E> List<E> ptrArrayView(Proxy ptrArray,
+                                           Function<MemorySegment, E> make) {
+        return new View<>(ptrArray, 0, make);
+    }
+
+    /**
+     * Create a random-access list view on the elements of a {@code GArray}
+     * that contains structs with the provided memory layout. The elements
+     * are created on demand with the {@code make} function. The view reads
+     * the current length and data buffer of the array on every access, so it
+     * reflects later changes to the array. The list cannot be modified.
+     *
+     * @param  array  the GArray
+     * @param  layout memory layout of the elements
+     * @param  make   function that creates an element for a struct
+     * @param  <E>    the element type
+     * @return a list view on the elements
+     * @throws IllegalArgumentException if the size of the layout is not the
+     *                                  element size of the array
+     */
+    public static <E> List<E> arrayView(Proxy array,
+                                        MemoryLayout layout,
+                                        Function<MemorySegment, E> make) {
+        long elementSize = elementSize(array.handle());
+        if (layout.byteSize() != elementSize)
+            throw new IllegalArgumentException(
+                    "Layout size %d does not match array element size %d"
+                            .formatted(layout.byteSize(), elementSize));
+        return new View<>(array, layout.byteSize(), make);
+    }
+
+    /**
+     * Get a memory segment of the data buffer of a {@code GArray}. The size
+     * of the segment is the length of the array times the element size. Use
+     * the bulk methods of {@link MemorySegment}, like
+     * {@link MemorySegment#toArray(ValueLayout.OfInt)}, to copy the contents
+     * into a Java array.
+     * <p>
+     * The segment is only valid until the array is modified or freed.
+     *
+     * @param  array the GArray
+     * @return a memory segment of the data buffer
+     */
+    public static MemorySegment arraySegment(Proxy array) {
+        return data(array.handle(), elementSize(array.handle()));
+    }
+
+    /**
+     * Get a memory segment of the data buffer of a {@code GByteArray}. The
+     * size of the segment is the length of the array.
+     * <p>
+     * The segment is only valid until the array is modified or freed.
+     *
+     * @param  byteArray the GByteArray
+     * @return a memory segment of the data buffer
+     */
+    public static MemorySegment byteArraySegment(Proxy byteArray) {
+        return data(byteArray.handle(), 1);
+    }
+
+    // Get the element size of a GArray
+    private static long elementSize(MemorySegment address) {
+        try {
+            int elementSize = (int) g_array_get_element_size.invokeExact(address);
+            return Integer.toUnsignedLong(elementSize);
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
+        }
+    }
+
+    // Read the length of the array
+    private static int len(MemorySegment address) {
+        return Interop.reinterpret(address, LEN_OFFSET + Integer.BYTES)
+                .get(ValueLayout.JAVA_INT, LEN_OFFSET);
+    }
+
+    // Read the data buffer of the array, resized to len * elementSize
+    private static MemorySegment data(MemorySegment address, long elementSize) {
+        long size = Integer.toUnsignedLong(len(address)) * elementSize;
+        MemorySegment data = Interop.reinterpret(address, LEN_OFFSET)
+                .get(ValueLayout.ADDRESS, DATA_OFFSET);
+        return MemorySegment.NULL.equals(data) ? data : data.reinterpret(size);
+    }
+
+    /*
+     * List view on a GPtrArray (stride 0) or a GArray of structs. The array
+     * instance is referenced by the view, so it is not freed while the view
+     * is reachable.
+     */
+    private static final class View<E> extends AbstractList<E>
+            implements RandomAccess {
+
+        private final Proxy array;
+        private final long stride;
+        private final Function<MemorySegment, E> make;
+
+        View(Proxy array, long stride, Function<MemorySegment, E> make) {
+            this.array = Objects.requireNonNull(array);
+            this.stride = stride;
+            this.make = Objects.requireNonNull(make);
+        }
+
+        private MemorySegment data() {
+            return ArrayViews.data(array.handle(),
+                    stride == 0 ? ValueLayout.ADDRESS.byteSize() : stride);
+        }
+
+        private E element(MemorySegment data, int index) {
+            return make.apply(stride == 0
+                    ? data.getAtIndex(ValueLayout.ADDRESS, index)
+                    : data.asSlice(index * stride, stride));
+        }
+
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, size());
+            return element(data(), index);
+        }
+
+        @Override
+        public int size() {
+            return len(array.handle());
+        }
+
+        // Read the data buffer once, instead of once for every element
+        @Override
+        public Object[] toArray() {
+            MemorySegment data = data();
+            int size = (int) (data.byteSize()
+                    / (stride == 0 ? ValueLayout.ADDRESS.byteSize() : stride));
+            Object[] result = new Object[size];
+            for (int i = 0; i < size; i++)
+                result[i] = element(data, i);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.glib.types;
+
+import io.github.jwharm.javagi.base.Proxy;
+import io.github.jwharm.javagi.interop.CallArena;
+import io.github.jwharm.javagi.interop.Interop;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zero-copy access to the contents of {@code GBytes} instances, and
+ * creation of {@code GBytes} instances that wrap Java-owned native memory.
+ */
+public final class BytesViews {
+
+    private static final MethodHandle g_bytes_get_data =
+            Interop.downcallHandle("g_bytes_get_data",
+                    FunctionDescriptor.of(ValueLayout.ADDRESS,
+                            ValueLayout.ADDRESS, ValueLayout.ADDRESS), false);
+
+    private static final MethodHandle g_bytes_ref =
+            Interop.downcallHandle("g_bytes_ref",
+                    FunctionDescriptor.of(ValueLayout.ADDRESS,
+                            ValueLayout.ADDRESS), false);
+
+    private static final MethodHandle g_bytes_unref =
+            Interop.downcallHandle("g_bytes_unref",
+                    FunctionDescriptor.ofVoid(ValueLayout.ADDRESS), false);
+
+    private static final MethodHandle g_bytes_new_with_free_func =
+            Interop.downcallHandle("g_bytes_new_with_free_func",
+                    FunctionDescriptor.of(ValueLayout.ADDRESS,
+                            ValueLayout.ADDRESS, ValueLayout.JAVA_LONG,
+                            ValueLayout.ADDRESS, ValueLayout.ADDRESS), false);
+
+    // Segments that are wrapped in a GBytes, keyed by the user_data pointer
+    // that is passed to the free function
+    private static final Map<Long, MemorySegment> wrapped =
+            new ConcurrentHashMap<>();
+    private static final AtomicLong keys = new AtomicLong();
+
+    private static final MemorySegment free_func;
+
+    static {
+        // Create an upcall stub for the "release" function
+        try {
+            FunctionDescriptor fdesc = FunctionDescriptor.ofVoid(
+                    ValueLayout.ADDRESS);
+            var handle = MethodHandles.lookup().findStatic(
+                    BytesViews.class,
+                    "release",
+                    fdesc.toMethodType()
+            );
+            free_func = Linker.nativeLinker()
+                    .upcallStub(handle, fdesc, Arena.global());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private BytesViews() {
+    }
+
+    /**
+     * Get a read-only memory segment of the data in a {@code GBytes}. The
+     * contents are not copied. The segment holds a reference on the
+     * {@code GBytes}, so the data remains valid as long as the segment (or a
+     * {@link ByteBuffer} that was created from it) is reachable.
+     *
+     * @param  bytes the GBytes
+     * @return a read-only memory segment of the data
+     */
+    public static MemorySegment segment(Proxy bytes) {
+        MemorySegment address = bytes.handle();
+        MemorySegment data;
+        long size;
+        try (var _arena = CallArena.open()) {
+            MemorySegment _sizePointer = _arena.allocate(ValueLayout.JAVA_LONG);
+            data = (MemorySegment) g_bytes_get_data.invokeExact(
+                    address, _sizePointer);
+            size = _sizePointer.get(ValueLayout.JAVA_LONG, 0);
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
+        }
+
+        // An empty GBytes can return a NULL pointer
+        if (MemorySegment.NULL.equals(data))
+            return MemorySegment.NULL.asReadOnly();
+
+        // Release the reference when the segment is garbage-collected
+        MemorySegment ref = ref(address);
+        return data.reinterpret(size, Arena.ofAuto(), segment -> unref(ref))
+                .asReadOnly();
+    }
+
+    /**
+     * Get a read-only {@link ByteBuffer} of the data in a {@code GBytes}.
+     * The contents are not copied. The buffer holds a reference on the
+     * {@code GBytes}, so the data remains valid as long as the buffer is
+     * reachable.
+     *
+     * @param  bytes the GBytes
+     * @return a read-only direct ByteBuffer of the data
+     * @throws UnsupportedOperationException if the size of the data is larger
+     *                                       than {@link Integer#MAX_VALUE}
+     */
+    public static ByteBuffer byteBuffer(Proxy bytes) {
+        return segment(bytes).asByteBuffer();
+    }
+
+    /**
+     * Create a new {@code GBytes} that wraps the provided native memory
+     * segment, without copying the contents. The segment is kept reachable
+     * until the {@code GBytes} is freed, so memory that is allocated with an
+     * {@linkplain Arena#ofAuto() automatic arena} will not be released while
+     * GLib is still using it. When the segment is allocated with another
+     * arena, it must not be closed before the {@code GBytes} is freed.
+     * <p>
+     * The contents of the segment must not be modified after the
+     * {@code GBytes} is created.
+     *
+     * @param  data the native memory segment to wrap
+     * @return the memory address of the new {@code GBytes}
+     * @throws IllegalArgumentException if the segment is not a native segment
+     */
+    public static MemorySegment wrap(MemorySegment data) {
+        if (!data.isNative())
+            throw new IllegalArgumentException("Not a native memory segment");
+
+        long key = keys.incrementAndGet();
+        wrapped.put(key, data);
+        try {
+            return (MemorySegment) g_bytes_new_with_free_func.invokeExact(
+                    data, data.byteSize(), free_func,
+                    MemorySegment.ofAddress(key));
+        } catch (Throwable _err) {
+            wrapped.remove(key);
+            throw new AssertionError(_err);
+        }
+    }
+
+    /*
+     * Called by GLib when a GBytes that was created with wrap() is freed.
+     * The segment is not referenced anymore, so it can be released by the
+     * garbage collector.
+     */
+    private static void release(MemorySegment userData) {
+        wrapped.remove(userData.address());
+    }
+
+    private static MemorySegment ref(MemorySegment address) {
+        try {
+            return (MemorySegment) g_bytes_ref.invokeExact(address);
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
+        }
+    }
+
+    private static void unref(MemorySegment address) {
+        try {
+            g_bytes_unref.invokeExact(address);
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2023 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import java.lang.foreign.Arena;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the memory arenas that hold the upcall stubs of callbacks
+ * with a "bound" scope. The lifetime of these callbacks is bound to the
+ * lifetime of the object that they were passed to.
+ * <p>
+ * Every owning object gets one shared arena, which is used for all upcall
+ * stubs that are bound to that object. The arena is closed (releasing all
+ * its upcall stubs at once) when the owning object is garbage-collected.
+ * All arenas are closed by the same {@link ArenaCloseAction#CLEANER} thread.
+ * <p>
+ * The number of live arenas and upcall stubs can be queried with
+ * {@link #liveArenas()} and {@link #liveStubs()}.
+ */
+public final class BoundArenas {
+
+    private static final Map<Owner, Tracked> owners = new ConcurrentHashMap<>();
+    private static final AtomicInteger arenas = new AtomicInteger();
+    private static final LongAdder stubs = new LongAdder();
+
+    private BoundArenas() {
+    }
+
+    /**
+     * Get the arena for upcall stubs that are bound to the provided object.
+     * The first call for an object creates a new arena; subsequent calls
+     * return the same arena, until the object is garbage-collected.
+     *
+     * @param  owner the object that the upcall stub is bound to
+     * @return the arena that will be closed when {@code owner} is
+     *         garbage-collected
+     */
+    public static Arena forOwner(Object owner) {
+        Tracked tracked = owners.get(Owner.lookup(owner));
+        if (tracked == null)
+            tracked = owners.computeIfAbsent(
+                    Owner.weak(owner),
+                    key -> register(owner, key));
+        tracked.stubs.incrementAndGet();
+        stubs.increment();
+        return tracked.arena;
+    }
+
+    /**
+     * Close the provided arena when the provided object is garbage-collected.
+     * The arena must be closeable from another thread (i.e. it must not be a
+     * confined arena).
+     *
+     * @param  arena the arena to close
+     * @param  owner the object that the lifetime of the arena is bound to
+     * @return the arena (for method chaining)
+     */
+    public static Arena attach(Arena arena, Object owner) {
+        Tracked tracked = new Tracked(arena, null);
+        tracked.stubs.set(1);
+        arenas.incrementAndGet();
+        stubs.increment();
+        ArenaCloseAction.CLEANER.register(owner, tracked);
+        return arena;
+    }
+
+    /**
+     * Get the number of arenas that are currently kept alive for bound
+     * upcall stubs.
+     *
+     * @return the number of live arenas
+     */
+    public static int liveArenas() {
+        return arenas.get();
+    }
+
+    /**
+     * Get the number of bound upcall stubs that have not been released yet.
+     *
+     * @return the number of live upcall stubs
+     */
+    public static long liveStubs() {
+        return stubs.sum();
+    }
+
+    private static Tracked register(Object owner, Owner key) {
+        Tracked tracked = new Tracked(Arena.ofShared(), key);
+        arenas.incrementAndGet();
+        ArenaCloseAction.CLEANER.register(owner, tracked);
+        return tracked;
+    }
+
+    /*
+     * The arena of an owning object, and the number of upcall stubs that were
+     * allocated in it. Runs when the owner is garbage-collected.
+     */
+    private static final class Tracked implements Runnable {
+        private final Arena arena;
+        private final Owner key;
+        private final AtomicInteger stubs = new AtomicInteger();
+
+        Tracked(Arena arena, Owner key) {
+            this.arena = arena;
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            if (key != null)
+                owners.remove(key);
+            arena.close();
+            arenas.decrementAndGet();
+            BoundArenas.stubs.add(-stubs.get());
+        }
+    }
+
+    /*
+     * Map key that compares owning objects by identity. The registered keys
+     * hold a weak reference, so they don't keep the owner alive; the keys
+     * used for lookups hold a strong reference.
+     */
+    private static final class Owner {
+        private final Object strong;
+        private final WeakReference<Object> weak;
+        private final int hash;
+
+        private Owner(Object strong, WeakReference<Object> weak, int hash) {
+            this.strong = strong;
+            this.weak = weak;
+            this.hash = hash;
+        }
+
+        static Owner lookup(Object owner) {
+            return new Owner(owner, null, System.identityHashCode(owner));
+        }
+
+        static Owner weak(Object owner) {
+            return new Owner(null, new WeakReference<>(owner),
+                    System.identityHashCode(owner));
+        }
+
+        private Object get() {
+            return weak == null ? strong : weak.get();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Owner that)) return false;
+            Object referent = get();
+            return referent != null && referent == that.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * An arena for native memory that is only needed for the duration of a
+ * single native function call, like marshaled strings and pointers for
+ * out-parameters.
+ * <p>
+ * Every thread owns a block of native memory, that is allocated once. A
+ * CallArena hands out slices of this block, and when the CallArena is
+ * closed, the slices are released again. CallArenas on the same thread are
+ * nested (a callback that is invoked during a native function call can open
+ * its own CallArena), so the block is used as a stack. Because the block is
+ * owned by the thread (virtual or platform), a CallArena is safe to use with
+ * virtual threads.
+ * <p>
+ * When an allocation doesn't fit in the remaining space of the block, or
+ * when the {@linkplain #scope() scope} of the arena is requested (for
+ * example to allocate an upcall stub), a confined arena is opened and used
+ * as a fallback. It is closed together with the CallArena.
+ * <p>
+ * A CallArena must be used in a try-with-resources block, and must not be
+ * shared with other threads. Memory that is allocated by a CallArena must
+ * not be used after the CallArena is closed. Slices of the per-thread block
+ * are not invalidated when the CallArena is closed: using them afterwards
+ * does not throw an {@link IllegalStateException}, but silently reads or
+ * overwrites the data of the next native function call.
+ */
+public final class CallArena implements Arena {
+
+    // Block sizes for platform threads and virtual threads
+    private static final long PLATFORM_BLOCK_SIZE = 8192;
+    private static final long VIRTUAL_BLOCK_SIZE = 1024;
+
+    private static final ThreadLocal<Block> BLOCKS =
+            ThreadLocal.withInitial(Block::new);
+
+    /*
+     * The native memory block of a thread. The memory is released by the
+     * garbage collector when the thread has terminated.
+     */
+    private static final class Block {
+        private final MemorySegment segment;
+        private long offset;
+
+        Block() {
+            long size = Thread.currentThread().isVirtual()
+                    ? VIRTUAL_BLOCK_SIZE
+                    : PLATFORM_BLOCK_SIZE;
+            segment = Arena.ofAuto().allocate(size, 16);
+        }
+    }
+
+    private final Block block;
+    private final long start;
+    private Arena fallback;
+
+    private CallArena(Block block) {
+        this.block = block;
+        this.start = block.offset;
+    }
+
+    /**
+     * Open a new CallArena on the current thread.
+     *
+     * @return the new CallArena
+     */
+    public static CallArena open() {
+        return new CallArena(BLOCKS.get());
+    }
+
+    /**
+     * Allocate a zero-initialized slice of the thread's memory block, or
+     * allocate the memory in the fallback arena when the block is full.
+     *
+     * @param  byteSize      the size (in bytes) of the memory to allocate
+     * @param  byteAlignment the alignment (in bytes) of the memory
+     * @return the allocated memory segment
+     */
+    @Override
+    public MemorySegment allocate(long byteSize, long byteAlignment) {
+        if (byteSize < 0 || byteAlignment <= 0
+                || (byteAlignment & (byteAlignment - 1)) != 0)
+            throw new IllegalArgumentException("Invalid size or alignment");
+
+        long offset = (block.offset + byteAlignment - 1) & -byteAlignment;
+        if (byteAlignment <= 16
+                && offset + byteSize <= block.segment.byteSize()) {
+            block.offset = offset + byteSize;
+            return block.segment.asSlice(offset, byteSize).fill((byte) 0);
+        }
+        return fallback().allocate(byteSize, byteAlignment);
+    }
+
+    /**
+     * Returns the scope of the fallback arena. All memory that is allocated
+     * with this scope, is released when the CallArena is closed.
+     * <p>
+     * This opens the fallback arena. To resize a native pointer that is only
+     * read during the call, use {@link Interop#reinterpret(MemorySegment, long)}
+     * instead, which does not need a scope.
+     */
+    @Override
+    public MemorySegment.Scope scope() {
+        return fallback().scope();
+    }
+
+    /**
+     * Release the memory that was allocated by this CallArena.
+     */
+    @Override
+    public void close() {
+        block.offset = start;
+        if (fallback != null)
+            fallback.close();
+    }
+
+    private Arena fallback() {
+        if (fallback == null)
+            fallback = Arena.ofConfined();
+        return fallback;
+    }
+}
@@ -21,8 +21,8 @@ package io.github.jwharm.javagi.interop;
 
 import java.lang.foreign.*;
 import java.lang.invoke.*;
-import java.lang.ref.Cleaner;
 import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Arrays;
 import java.util.function.Function;
@@ -43,6 +43,12 @@ public class Interop {
 
     private final static int INT_UNBOUNDED = Integer.MAX_VALUE;
     private final static long LONG_UNBOUNDED = Long.MAX_VALUE;
+
+    // Cache for getInternedStringFrom(), with 2^INTERNED_BITS entries
+    private final static int INTERNED_BITS = 10;
+    private final static InternedString[] internedStrings =
+            new InternedString[1 << INTERNED_BITS];
+
     private final static Linker LINKER = Linker.nativeLinker();
     public static SymbolLookup symbolLookup = SymbolLookup.loaderLookup()
             .or(Linker.nativeLinker().defaultLookup());
@@ -93,6 +99,28 @@ public class Interop {
                 : LINKER.downcallHandle(addr, fdesc)).orElse(null);
     }
 
+    /**
+     * Create a method handle that is used to call the native function with
+     * the provided name and function descriptor, linked as a critical
+     * function that is allowed to access the Java heap. Heap segments
+     * (created with {@link MemorySegment#ofArray}) can be passed to the
+     * returned method handle, so array arguments do not have to be copied
+     * to native memory.
+     * <p>
+     * Only use this for short-running functions that do not call back into
+     * Java and do not keep a reference to the passed memory after they
+     * return.
+     *
+     * @param  name  name of the native function
+     * @param  fdesc function descriptor of the native function
+     * @return the newly created MethodHandle
+     */
+    public static MethodHandle criticalDowncallHandle(String name,
+                                                      FunctionDescriptor fdesc) {
+        return symbolLookup.find(name).map(addr -> LINKER.downcallHandle(
+                addr, fdesc, Linker.Option.critical(true))).orElse(null);
+    }
+
     /**
      * Create a method handle that is used to call the native function at the
      * provided memory address.
@@ -106,6 +134,20 @@ public class Interop {
         return LINKER.downcallHandle(symbol, fdesc);
     }
 
+    /**
+     * Create a method handle that is used to call a native function pointer
+     * with the provided function descriptor. The memory address of the native
+     * function must be passed as the first argument when the method handle is
+     * invoked, so the same method handle can be used for all functions with
+     * this function descriptor.
+     *
+     * @param  fdesc function descriptor of the native function
+     * @return the newly created MethodHandle
+     */
+    public static MethodHandle downcallHandle(FunctionDescriptor fdesc) {
+        return LINKER.downcallHandle(fdesc);
+    }
+
     /**
      * Create a method handle for the {@code upcall} method in the provided
      * class.
@@ -140,19 +182,18 @@ public class Interop {
     }
 
     /**
-     * Register a Cleaner that will close the arena when the instance is
-     * garbage-collected, coupling the lifetime of the arena to the lifetime of
-     * the instance.
+     * Close the arena when the instance is garbage-collected, coupling the
+     * lifetime of the arena to the lifetime of the instance. The arena is
+     * closed by the shared cleaner thread of {@link BoundArenas}.
      *
-     * @param  arena    a memory arena that can be closed (normally
-     *                  {@link Arena#ofConfined()} or {@link Arena#ofAuto()}.
+     * @param  arena    a memory arena that can be closed from another thread
+     *                  (normally {@link Arena#ofShared()}).
      * @param  instance an object
      * @return the arena (for method chaining)
+     * @see BoundArenas#forOwner(Object)
      */
     public static Arena attachArena(Arena arena, Object instance) {
-        Cleaner cleaner = Cleaner.create();
-        cleaner.register(instance, arena::close);
-        return arena;
+        return BoundArenas.attach(arena, instance);
     }
 
     /**
@@ -211,8 +252,7 @@ public class Interop {
     }
 
     /**
-     * Copy a Java string from native memory using
-     * {@code MemorySegment.getUtf8String()}. If an error occurs or when the
+     * Copy a Java string from native memory. If an error occurs or when the
      * native address is NULL, null is returned.
      * <p>
      * The native memory is not freed.
@@ -226,8 +266,7 @@ public class Interop {
     }
 
     /**
-     * Copy a Java string from native memory using
-     * {@code MemorySegment.getUtf8String()}. If an error occurs or when the
+     * Copy a Java string from native memory. If an error occurs or when the
      * native address is NULL, null is returned.
      *
      * @param  address the memory address of the native String
@@ -241,13 +280,97 @@ public class Interop {
             return null;
 
         try {
-            return address.reinterpret(LONG_UNBOUNDED).getString(0);
+            return decodeString(address.reinterpret(LONG_UNBOUNDED));
         } finally {
             if (free)
                 GLib.free(address);
         }
     }
 
+    /**
+     * Copy a Java string from native memory, for a native string that is
+     * never modified or freed, such as the strings that are interned by GLib
+     * (quark strings, type names, signal names and property names). Recently
+     * used strings are cached by their memory address, so they are only
+     * decoded once.
+     * <p>
+     * This method must not be used for strings that can be freed, because the
+     * memory address could be reused for another string.
+     *
+     * @param  address the memory address of the native String
+     *                 (a {@code NULL}-terminated {@code char*})
+     * @return a String or null
+     */
+    public static String getInternedStringFrom(MemorySegment address) {
+
+        if (NULL.equals(address))
+            return null;
+
+        long addr = address.address();
+        int index = (int) ((addr * 0x9E3779B97F4A7C15L) >>> (64 - INTERNED_BITS));
+        InternedString cached = internedStrings[index];
+        if (cached != null && cached.address == addr)
+            return cached.string;
+
+        String string = decodeString(address.reinterpret(LONG_UNBOUNDED));
+        internedStrings[index] = new InternedString(addr, string);
+        return string;
+    }
+
+    /*
+     * Decode a NULL-terminated UTF-8 string. The length is determined eight
+     * bytes at a time (using aligned reads, so the string is never read
+     * beyond the memory page of the terminating NULL byte). Strings that only
+     * contain ASCII characters are copied without UTF-8 decoding.
+     */
+    private static String decodeString(MemorySegment segment) {
+        long len = 0;
+        long high = 0;
+
+        // Read bytes until the address is aligned
+        while (((segment.address() + len) & 7) != 0) {
+            byte b = segment.get(ValueLayout.JAVA_BYTE, len);
+            if (b == 0)
+                return newString(segment, len, high == 0);
+            high |= b & 0x80;
+            len++;
+        }
+
+        // Read aligned longs until one of them contains a NULL byte
+        while (true) {
+            long word = segment.get(ValueLayout.JAVA_LONG_UNALIGNED, len);
+            if (((word - 0x0101010101010101L) & ~word & 0x8080808080808080L) != 0)
+                break;
+            high |= word & 0x8080808080808080L;
+            len += 8;
+        }
+
+        // Find the NULL byte
+        while (true) {
+            byte b = segment.get(ValueLayout.JAVA_BYTE, len);
+            if (b == 0)
+                return newString(segment, len, high == 0);
+            high |= b & 0x80;
+            len++;
+        }
+    }
+
+    private static String newString(MemorySegment segment,
+                                    long length,
+                                    boolean ascii) {
+        if (length > INT_UNBOUNDED - 8)
+            throw new IllegalArgumentException("String too large");
+        byte[] bytes = new byte[(int) length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, 0,
+                bytes, 0, (int) length);
+        return new String(bytes, ascii ? StandardCharsets.ISO_8859_1
+                                       : StandardCharsets.UTF_8);
+    }
+
+    // A decoded native string that is cached by its memory address
+    private record InternedString(long address, String string) {
+    }
+
     /**
      * Read an array of Strings with the requested length from native memory.
      *
@@ -408,16 +531,14 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of booleans
      */
     public static boolean[] getBooleanArrayFrom(MemorySegment address,
                                                 long length,
-                                                Arena arena,
                                                 boolean free) {
 
-        int[] intArray = getIntegerArrayFrom(address, length, arena, free);
+        int[] intArray = getIntegerArrayFrom(address, length, free);
         boolean[] array = new boolean[intArray.length];
 
         for (int c = 0; c < intArray.length; c++)
@@ -431,16 +552,14 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of bytes
      */
     public static byte[] getByteArrayFrom(MemorySegment address,
                                           long length,
-                                          Arena arena,
                                           boolean free) {
 
-        byte[] array = address.reinterpret(length, arena, null)
+        byte[] array = reinterpret(address, length)
                 .toArray(ValueLayout.JAVA_BYTE);
 
         if (free)
@@ -453,21 +572,19 @@ public class Interop {
      * Read a {@code NULL}-terminated array of bytes from native memory.
      *
      * @param  address address of the memory segment
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of bytes
      */
     public static byte[] getByteArrayFrom(MemorySegment address,
-                                          Arena arena,
                                           boolean free) {
         // Find the null byte
-        MemorySegment array = address.reinterpret(LONG_UNBOUNDED, arena, null);
+        MemorySegment array = reinterpret(address, LONG_UNBOUNDED);
         long idx = 0;
         while (array.get(ValueLayout.JAVA_BYTE, idx) != 0) {
             idx++;
         }
 
-        return getByteArrayFrom(address, idx, arena, free);
+        return getByteArrayFrom(address, idx, free);
     }
 
     /**
@@ -475,17 +592,15 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of chars
      */
     public static char[] getCharacterArrayFrom(MemorySegment address,
                                                long length,
-                                               Arena arena,
                                                boolean free) {
 
         long size = ValueLayout.JAVA_CHAR.byteSize();
-        char[] array = address.reinterpret(length * size, arena, null)
+        char[] array = reinterpret(address, length * size)
                 .toArray(ValueLayout.JAVA_CHAR);
 
         if (free)
@@ -499,17 +614,15 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of doubles
      */
     public static double[] getDoubleArrayFrom(MemorySegment address,
                                               long length,
-                                              Arena arena,
                                               boolean free) {
 
         long size = ValueLayout.JAVA_DOUBLE.byteSize();
-        double[] array = address.reinterpret(length * size, arena, null)
+        double[] array = reinterpret(address, length * size)
                 .toArray(ValueLayout.JAVA_DOUBLE);
 
         if (free)
@@ -523,17 +636,15 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of floats
      */
     public static float[] getFloatArrayFrom(MemorySegment address,
                                             long length,
-                                            Arena arena,
                                             boolean free) {
 
         long size = ValueLayout.JAVA_FLOAT.byteSize();
-        float[] array = address.reinterpret(length * size, arena, null)
+        float[] array = reinterpret(address, length * size)
                 .toArray(ValueLayout.JAVA_FLOAT);
 
         if (free)
@@ -547,17 +658,15 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of integers
      */
     public static int[] getIntegerArrayFrom(MemorySegment address,
                                             long length,
-                                            Arena arena,
                                             boolean free) {
 
         long size = ValueLayout.JAVA_INT.byteSize();
-        int[] array = address.reinterpret(length * size, arena, null)
+        int[] array = reinterpret(address, length * size)
                 .toArray(ValueLayout.JAVA_INT);
 
         if (free)
@@ -570,22 +679,20 @@ public class Interop {
      * Read a {@code NULL}-terminated array of integers from native memory.
      *
      * @param  address address of the memory segment
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of integers
      */
     public static int[] getIntegerArrayFrom(MemorySegment address,
-                                            Arena arena,
                                             boolean free) {
 
         // Find the null byte
-        MemorySegment array = address.reinterpret(INT_UNBOUNDED, arena, null);
+        MemorySegment array = reinterpret(address, INT_UNBOUNDED);
         long idx = 0;
         while (array.getAtIndex(ValueLayout.JAVA_INT, idx) != 0) {
             idx++;
         }
 
-        return getIntegerArrayFrom(address, idx, arena, free);
+        return getIntegerArrayFrom(address, idx, free);
     }
 
     /**
@@ -593,17 +700,15 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of longs
      */
     public static long[] getLongArrayFrom(MemorySegment address,
                                           long length,
-                                          Arena arena,
                                           boolean free) {
 
         long size = ValueLayout.JAVA_LONG.byteSize();
-        long[] array = address.reinterpret(length * size, arena, null)
+        long[] array = reinterpret(address, length * size)
                 .toArray(ValueLayout.JAVA_LONG);
 
         if (free)
@@ -617,17 +722,15 @@ public class Interop {
      *
      * @param  address address of the memory segment
      * @param  length  length of the array
-     * @param  arena   the memory scope
      * @param  free    if the array must be freed
      * @return array of shorts
      */
     public static short[] getShortArrayFrom(MemorySegment address,
                                             long length,
-                                            Arena arena,
                                             boolean free) {
 
         long size = ValueLayout.JAVA_SHORT.byteSize();
-        short[] array = address.reinterpret(length * size, arena, null)
+        short[] array = reinterpret(address, length * size)
                 .toArray(ValueLayout.JAVA_SHORT);
 
         if (free)
@@ -720,13 +823,120 @@ public class Interop {
         MemorySegment array = reinterpret(address, layout.byteSize() * length);
 
         @SuppressWarnings("unchecked") T[] result = (T[]) Array.newInstance(cls, length);
-        List<MemorySegment> elements = array.elements(layout).toList();
+        long size = layout.byteSize();
         for (int i = 0; i < length; i++) {
-            result[i] = make.apply(elements.get(i));
+            result[i] = make.apply(array.asSlice(i * size, size));
         }
         return result;
     }
 
+    /**
+     * Create an unmodifiable list view of a {@code NULL}-terminated array of
+     * memory addresses. A Proxy instance for an element is created when it
+     * is read from the list.
+     *
+     * @param  address address of the memory segment
+     * @param  make    constructor of the Proxy type
+     * @param  owner   the instance that owns the array, or null
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @param  <T>     the type of the Proxy instances
+     * @return list view of the Proxy instances
+     */
+    public static <T extends Proxy>
+    List<T> getProxyListFrom(MemorySegment address,
+                             Function<MemorySegment, T> make,
+                             Object owner,
+                             boolean free) {
+
+        if (address == null || NULL.equals(address))
+            return null;
+
+        MemorySegment array = reinterpret(address, LONG_UNBOUNDED);
+
+        long offset = 0;
+        while (!NULL.equals(
+                        array.get(ValueLayout.ADDRESS, offset))) {
+            offset += ValueLayout.ADDRESS.byteSize();
+        }
+
+        int length = (int) (offset / ValueLayout.ADDRESS.byteSize());
+        return getProxyListFrom(address, length, make, owner, free);
+    }
+
+    /**
+     * Create an unmodifiable list view of an array of memory addresses. A
+     * Proxy instance for an element is created when it is read from the
+     * list.
+     *
+     * @param  address address of the memory segment
+     * @param  length  length of the array
+     * @param  make    constructor of the Proxy type
+     * @param  owner   the instance that owns the array, or null
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @param  <T>     the type of the Proxy instances
+     * @return list view of the Proxy instances
+     */
+    public static <T extends Proxy>
+    List<T> getProxyListFrom(MemorySegment address,
+                             int length,
+                             Function<MemorySegment, T> make,
+                             Object owner,
+                             boolean free) {
+
+        if (address == null || NULL.equals(address))
+            return null;
+
+        long size = ValueLayout.ADDRESS.byteSize() * length;
+        MemorySegment array = reinterpretList(address, size, free);
+        return new NativeList<>(array, length, 0, make, owner);
+    }
+
+    /**
+     * Create an unmodifiable list view of an array of structs. A Proxy
+     * instance for an element is created when it is read from the list.
+     *
+     * @param  address address of the memory segment
+     * @param  length  length of the array
+     * @param  make    constructor of the Proxy type
+     * @param  layout  memory layout of the struct
+     * @param  owner   the instance that owns the array, or null
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @param  <T>     the type of the Proxy instances
+     * @return list view of the Proxy instances
+     */
+    public static <T extends Proxy>
+    List<T> getStructListFrom(MemorySegment address,
+                              int length,
+                              Function<MemorySegment, T> make,
+                              MemoryLayout layout,
+                              Object owner,
+                              boolean free) {
+
+        if (address == null || NULL.equals(address))
+            return null;
+
+        long size = layout.byteSize() * length;
+        MemorySegment array = reinterpretList(address, size, free);
+        return new NativeList<>(array, length, layout.byteSize(), make, owner);
+    }
+
+    /*
+     * Resize the memory segment of a list view. When the array must be
+     * freed, it is attached to an automatic arena with g_free() as cleanup
+     * action, so it is freed after the list and all elements that were read
+     * from it are unreachable.
+     */
+    private static MemorySegment reinterpretList(MemorySegment address,
+                                                 long size,
+                                                 boolean free) {
+        if (free)
+            return address.reinterpret(size, Arena.ofAuto(), GLib::free);
+        return reinterpret(address, size);
+    }
+
     /**
      * Read an array of integers from native memory, create a Java instance for
      * each integer value with the provided constructor, and return an array of
@@ -982,8 +1192,7 @@ public class Interop {
         for (int i = 0; i < array.length; i++) {
             if (array[i] != null && (!NULL.equals(array[i].handle()))) {
                 // Copy array element to the native array
-                MemorySegment element = array[i].handle()
-                        .reinterpret(layout.byteSize(), arena, null);
+                MemorySegment element = reinterpret(array[i].handle(), layout.byteSize());
                 segment.asSlice(i * layout.byteSize()).copyFrom(element);
             } else {
                 // Fill the array slice with zeros
@@ -1025,7 +1234,8 @@ public class Interop {
     }
 
     /**
-     * Create an EnumSet of class `cls` from the provided bitfield
+     * Create an EnumSet of class `cls` from the provided bitfield. Use
+     * {@link Flags#of} to get a cached, immutable set instead.
      *
      * @param  <T>      an enum implementing the Java-GI Enumeration interface
      * @param  cls      the class of the enum
@@ -1057,6 +1267,9 @@ public class Interop {
      */
     public static <T extends Enum<T> & Enumeration>
     int enumSetToInt(Set<T> set) {
+        if (set instanceof Flags<T> flags)
+            return flags.getValue();
+
         int bitfield = 0;
         for (T element : set)
             bitfield |= element.getValue();
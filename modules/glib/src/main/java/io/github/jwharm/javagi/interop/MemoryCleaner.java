@@ -29,8 +29,8 @@ import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.ref.Cleaner;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Objects.requireNonNull;
 
@@ -48,39 +48,58 @@ import static java.util.Objects.requireNonNull;
  * will not free the memory. Ownership is enabled/disabled with
  * {@link #takeOwnership(Proxy)} and
  * {@link #yieldOwnership(Proxy)}.
+ * <p>
+ * The cache is split into a number of stripes that are locked independently,
+ * so proxy objects for different memory addresses can be registered and
+ * cleaned concurrently. Specialized free functions are linked only once.
  */
 public class MemoryCleaner {
 
     private static final Cleaner CLEANER = Cleaner.create();
-    private static final Map<MemorySegment, Cached> cache = new HashMap<>();
+
+    // The number of stripes (must be a power of 2)
+    private static final int STRIPES = 64;
+    private static final Stripe[] cache = new Stripe[STRIPES];
+
+    // Linked downcall handles for specialized free functions
+    private static final Map<String, MethodHandle> freeFuncs =
+            new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < STRIPES; i++)
+            cache[i] = new Stripe();
+    }
+
+    // Get the stripe for this memory address
+    private static Stripe stripe(long address) {
+        return cache[Stripe.hash(address) & (STRIPES - 1)];
+    }
 
     /**
      * Register the memory address of this proxy to be cleaned when the proxy
-     * gets garbage-collected.
+     * gets garbage-collected. Must be called while holding the lock on the
+     * stripe.
      *
      * @param proxy The proxy instance
      */
-    private static @NotNull Cached getOrRegister(@NotNull Proxy proxy) {
+    private static @NotNull Cached getOrRegister(@NotNull Stripe stripe,
+                                                 @NotNull Proxy proxy) {
         MemorySegment address = proxy.handle();
-        synchronized (cache) {
-            Cached cached = cache.get(address);
-            if (cached == null) {
-                // Put the address in the cache
-                var finalizer = new StructFinalizer(address);
-                var cleanable = CLEANER.register(proxy, finalizer);
-                cached = new Cached(false, 1, null, null, cleanable);
-                cache.put(address, cached);
-            } else {
-                // Already in the cache: increase the refcount
-                cached = new Cached(false,
-                        cached.references + 1,
-                        cached.freeFunc,
-                        cached.boxedType,
-                        cached.cleanable);
-                cache.put(address, cached);
-            }
-            return cached;
+        Cached cached = stripe.get(address.address());
+        if (cached == null) {
+            // Put the address in the cache
+            var finalizer = new StructFinalizer(address);
+            cached = new Cached();
+            cached.references = 1;
+            cached.cleanable = CLEANER.register(proxy, finalizer);
+            stripe.put(address.address(), cached);
+        } else {
+            // Already in the cache: increase the refcount. The new proxy
+            // doesn't own the memory until ownership is taken again.
+            cached.owned = false;
+            cached.references++;
         }
+        return cached;
     }
 
     /**
@@ -94,13 +113,9 @@ public class MemoryCleaner {
                                    @NotNull String freeFunc) {
         requireNonNull(proxy);
         requireNonNull(freeFunc);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(cached.owned,
-                                               cached.references,
-                                               freeFunc,
-                                               cached.boxedType,
-                                               cached.cleanable));
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy).freeFunc = freeFunc;
         }
     }
 
@@ -115,13 +130,9 @@ public class MemoryCleaner {
                                     @NotNull Type boxedType) {
         requireNonNull(proxy);
         requireNonNull(boxedType);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(cached.owned,
-                                                cached.references,
-                                                cached.freeFunc,
-                                                boxedType,
-                                                cached.cleanable));
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy).boxedType = boxedType;
         }
     }
 
@@ -133,13 +144,9 @@ public class MemoryCleaner {
      */
     public static void takeOwnership(@NotNull Proxy proxy) {
         requireNonNull(proxy);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(true,
-                                               cached.references,
-                                               cached.freeFunc,
-                                               cached.boxedType,
-                                               cached.cleanable));
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy).owned = true;
         }
     }
 
@@ -151,13 +158,9 @@ public class MemoryCleaner {
      */
     public static void yieldOwnership(@NotNull Proxy proxy) {
         requireNonNull(proxy);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(false,
-                                               cached.references,
-                                               cached.freeFunc,
-                                               cached.boxedType,
-                                               cached.cleanable));
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy).owned = false;
         }
     }
 
@@ -168,27 +171,126 @@ public class MemoryCleaner {
      * @param address the memory address to free
      */
     public static void free(MemorySegment address) {
-        synchronized (cache) {
-            Cached cached = cache.get(address);
-            if (cached != null)
-                cached.cleanable.clean();
+        Stripe stripe = stripe(address.address());
+        Cleaner.Cleanable cleanable;
+        synchronized (stripe) {
+            Cached cached = stripe.get(address.address());
+            if (cached == null)
+                return;
+            cleanable = cached.cleanable;
         }
+        cleanable.clean();
+    }
+
+    /*
+     * Get the linked downcall handle for a specialized free function. The
+     * function is only linked the first time it is used.
+     */
+    private static MethodHandle freeFunc(String name) {
+        return freeFuncs.computeIfAbsent(name, n -> Interop.downcallHandle(
+                n,
+                FunctionDescriptor.ofVoid(ValueLayout.ADDRESS),
+                false
+        ));
     }
 
     /**
-     * This record type is cached for each memory address.
-     *
-     * @param owned      whether this address is owned (should be cleaned)
-     * @param references the number of references (active Proxy objects) for
-     *                   this address
-     * @param freeFunc   an (optional) specialized function that will release
-     *                   the native memory
+     * This mutable entry is cached for each memory address. It is only
+     * accessed while holding the lock on its stripe.
+     */
+    private static final class Cached {
+        // whether this address is owned (should be cleaned)
+        boolean owned;
+
+        // the number of references (active Proxy objects) for this address
+        int references;
+
+        // an (optional) specialized function that will release the memory
+        String freeFunc;
+
+        // an (optional) boxed type, to release the memory with g_boxed_free
+        Type boxedType;
+
+        Cleaner.Cleanable cleanable;
+    }
+
+    /**
+     * A part of the cache, with its own lock. The entries are stored in an
+     * open-addressing hash table with linear probing, keyed by the memory
+     * address, so the addresses don't need to be boxed.
      */
-    private record Cached(boolean owned,
-                          int references,
-                          String freeFunc,
-                          Type boxedType,
-                          Cleaner.Cleanable cleanable) {
+    private static final class Stripe {
+        private long[] keys = new long[16];
+        private Cached[] values = new Cached[16];
+        private int size;
+
+        static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        // Find the slot of this key, or the empty slot where it should go
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int i = (hash(key) >>> 6) & mask;
+            while (values[i] != null && keys[i] != key)
+                i = (i + 1) & mask;
+            return i;
+        }
+
+        Cached get(long key) {
+            return values[slot(key)];
+        }
+
+        void put(long key, Cached value) {
+            int i = slot(key);
+            if (values[i] == null) {
+                if (++size > keys.length / 2) {
+                    resize();
+                    i = slot(key);
+                }
+                keys[i] = key;
+            }
+            values[i] = value;
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key);
+            if (values[i] == null)
+                return;
+            values[i] = null;
+            size--;
+
+            // Shift the following entries back to close the gap
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (values[j] == null)
+                    return;
+                int k = (hash(keys[j]) >>> 6) & mask;
+                if ((j > i && (k <= i || k > j)) || (j < i && (k <= i && k > j))) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Cached[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Cached[oldValues.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int j = slot(oldKeys[i]);
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                }
+            }
+        }
     }
 
     /**
@@ -209,48 +311,46 @@ public class MemoryCleaner {
          * for this memory address is garbage-collected.
          */
         public void run() {
-            Cached cached;
-            synchronized (cache) {
-                cached = cache.get(address);
+            boolean owned;
+            String freeFunc;
+            Type boxedType;
+            Stripe stripe = stripe(address.address());
+            synchronized (stripe) {
+                Cached cached = stripe.get(address.address());
 
                 // When other references exist, decrease the refcount
                 if (cached.references > 1) {
-                    cache.put(address, new Cached(cached.owned,
-                                                       cached.references - 1,
-                                                       cached.freeFunc,
-                                                       cached.boxedType,
-                                                       cached.cleanable));
+                    cached.references--;
                     return;
                 }
 
                 // When no other references exist, remove the address from the
                 // cache and free the memory
-                cache.remove(address);
+                stripe.remove(address.address());
+                owned = cached.owned;
+                freeFunc = cached.freeFunc;
+                boxedType = cached.boxedType;
             }
 
             // if we don't have ownership, we must not run free()
-            if (!cached.owned) {
+            if (!owned) {
                 return;
             }
 
             // run g_free
-            if (cached.freeFunc == null) {
+            if (freeFunc == null) {
                 GLib.free(address);
                 return;
             }
 
             try {
-                if (cached.boxedType != null) {
+                if (boxedType != null) {
                     // free boxed type
-                    long gtype = cached.boxedType.getValue();
+                    long gtype = boxedType.getValue();
                     g_boxed_free.invokeExact(gtype, address);
                 } else {
                     // Run specialized free function
-                    Interop.downcallHandle(
-                            cached.freeFunc,
-                            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS),
-                            false
-                    ).invokeExact(address);
+                    freeFunc(freeFunc).invokeExact(address);
                 }
             } catch (Throwable err) {
                 throw new AssertionError(err);
@@ -0,0 +1,87 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * An unmodifiable, random-access list view of a native array. The Java
+ * instances for the elements are created on demand, when they are read
+ * from the list.
+ * <p>
+ * The array either contains pointers to the elements, or the elements
+ * themselves (an array of structs). The list keeps a reference to the
+ * instance that owns the native array, so the array is not freed while the
+ * list is reachable.
+ *
+ * @param <T> the element type
+ */
+public final class NativeList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final MemorySegment array;
+    private final int size;
+    private final long stride;
+    private final Function<MemorySegment, T> make;
+
+    @SuppressWarnings({"unused", "FieldCanBeLocal"}) // pins the owner
+    private final Object owner;
+
+    /**
+     * Create a list view of a native array.
+     *
+     * @param array  the native array
+     * @param size   the number of elements
+     * @param stride the size of an element in bytes when the array contains
+     *               the elements themselves, or 0 when the array contains
+     *               pointers to the elements
+     * @param make   function that creates a Java instance for an element
+     * @param owner  the instance that owns the native array, or null
+     */
+    NativeList(MemorySegment array,
+               int size,
+               long stride,
+               Function<MemorySegment, T> make,
+               Object owner) {
+        this.array = array;
+        this.size = size;
+        this.stride = stride;
+        this.make = make;
+        this.owner = owner;
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        MemorySegment element = stride == 0
+                ? array.getAtIndex(ValueLayout.ADDRESS, index)
+                : array.asSlice(index * stride, stride);
+        return make.apply(element);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -27,19 +27,38 @@ import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.Arrays;
 
 import static io.github.jwharm.javagi.interop.Interop.*;
 
 /**
  * Generate a MethodHandle for a variadic function.
+ * <p>
+ * A VarargsInvoker is created once for each variadic function. The downcall
+ * handles are linked lazily for every combination of variadic argument
+ * layouts (the "shape" of the variadic arguments) and cached, so repeated
+ * calls with the same kinds of arguments don't link a new downcall handle.
+ * Strings and arrays that are passed as variadic arguments are allocated in
+ * a confined arena that is closed when the call returns.
  */
-record VarargsInvoker(MemorySegment symbol, FunctionDescriptor function) {
+final class VarargsInvoker {
 
     private static final MethodHandle METHOD_HANDLE;
     private static final SegmentAllocator THROW = (_, _) -> {
         throw new AssertionError("should not reach here");
     };
 
+    // The maximum number of variadic arguments for which the shape is cached
+    private static final int MAX_CACHED_ARGS = 31;
+
+    // The maximum number of cached shapes per variadic function
+    private static final int MAX_CACHED_SHAPES = 64;
+
+    // Two bits per variadic argument layout in the shape
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int ADDRESS = 3;
+
     static {
         try {
             METHOD_HANDLE = MethodHandles.lookup().findVirtual(
@@ -54,6 +73,35 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor function) {
         }
     }
 
+    private final MemorySegment symbol;
+    private final FunctionDescriptor function;
+    private final boolean needsAllocator;
+
+    /*
+     * Linked downcall handles for the shapes of variadic arguments that have
+     * been used to call this function. The array is replaced (copy-on-write)
+     * when a new shape is added, so it can be read without locking.
+     */
+    private volatile Linked[] linked = new Linked[0];
+
+    /*
+     * Downcall handle for calls without variadic arguments. It accepts the
+     * (unmodified) array with the named arguments and the empty vararg array.
+     */
+    private final MethodHandle noVarargs;
+
+    private VarargsInvoker(MemorySegment symbol, FunctionDescriptor function) {
+        this.symbol = symbol;
+        this.function = function;
+        this.needsAllocator = function.returnLayout().isPresent()
+                && function.returnLayout().get() instanceof GroupLayout;
+
+        int nNamedArgs = function.argumentLayouts().size();
+        MethodHandle mh = Interop.downcallHandle(symbol, function);
+        mh = MethodHandles.dropArguments(mh, mh.type().parameterCount(), Object.class);
+        this.noVarargs = spread(mh, nNamedArgs + 1);
+    }
+
     /**
      * Create a MethodHandle with the correct signature
      */
@@ -73,10 +121,7 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor function) {
         }
         mtype = mtype.appendParameterTypes(Object[].class);
 
-        boolean needsAllocator = function.returnLayout().isPresent()
-                && function.returnLayout().get() instanceof GroupLayout;
-
-        if (needsAllocator)
+        if (invoker.needsAllocator)
             mtype = mtype.insertParameterTypes(0, SegmentAllocator.class);
         else
             handle = MethodHandles.insertArguments(handle, 0, THROW);
@@ -98,6 +143,19 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor function) {
         throw new AssertionError("Cannot get here!");
     }
 
+    /*
+     * Adapt the downcall handle so it can be invoked with an (optional)
+     * SegmentAllocator and an array of arguments, and returns an Object.
+     */
+    private MethodHandle spread(MethodHandle mh, int argsCount) {
+        mh = mh.asSpreader(Object[].class, argsCount);
+        return needsAllocator
+                ? mh.asType(MethodType.methodType(Object.class,
+                        SegmentAllocator.class, Object[].class))
+                : mh.asType(MethodType.methodType(Object.class,
+                        Object[].class));
+    }
+
     /*
      * This method is used from a MethodHandle (INVOKE_MH).
      */
@@ -110,88 +168,126 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor function) {
         // The last argument is the array of vararg collector
         Object[] unnamedArgs = (Object[]) args[args.length - 1];
 
-        int argsCount = nNamedArgs + unnamedArgs.length;
-        MemoryLayout[] argLayouts = new MemoryLayout[argsCount];
+        // Fast path: no variadic arguments
+        if (unnamedArgs.length == 0)
+            return needsAllocator
+                    ? (Object) noVarargs.invokeExact(allocator, args)
+                    : (Object) noVarargs.invokeExact(args);
 
-        int pos;
-        for (pos = 0; pos < nNamedArgs; pos++) {
-            argLayouts[pos] = function.argumentLayouts().get(pos);
-        }
+        Arena arena = null;
+        try {
+            /*
+             * Flatten argument list so that it can be passed to an asSpreader
+             * MethodHandle, and unwrap the Java-GI types to their address or
+             * primitive value.
+             */
+            Object[] allArgs = new Object[nNamedArgs + unnamedArgs.length];
+            System.arraycopy(args, 0, allArgs, 0, nNamedArgs);
+            long shape = unnamedArgs.length <= MAX_CACHED_ARGS ? 0 : -1;
 
-        // Unwrap the Java-GI types to their address or primitive value
-        Object[] unwrappedArgs = new Object[unnamedArgs.length];
-        for (int i = 0; i < unnamedArgs.length; i++) {
-            unwrappedArgs[i] = unwrapJavagiTypes(unnamedArgs[i]);
+            for (int i = 0; i < unnamedArgs.length; i++) {
+                Object arg = unnamedArgs[i];
+                if (needsArena(arg) && arena == null)
+                    arena = Arena.ofConfined();
+                Object value = normalize(unwrapJavagiTypes(arg, arena));
+                allArgs[nNamedArgs + i] = value;
+                if (shape != -1)
+                    shape = (shape << 2) | layoutCode(value);
+            }
+
+            MethodHandle mh = shape == -1
+                    ? link(allArgs, nNamedArgs)
+                    : lookup(shape, allArgs, nNamedArgs);
+
+            return needsAllocator
+                    ? (Object) mh.invokeExact(allocator, allArgs)
+                    : (Object) mh.invokeExact(allArgs);
+        } finally {
+            if (arena != null)
+                arena.close();
         }
+    }
+
+    /*
+     * Find the cached downcall handle for this shape. When the shape isn't in
+     * the cache, link a new downcall handle and add it.
+     */
+    private MethodHandle lookup(long shape, Object[] allArgs, int nNamedArgs) {
+        // The number of arguments is compared as well, to distinguish
+        // between shapes like (long) and (long, long, long)
+        int count = allArgs.length - nNamedArgs;
 
-        for (Object o : unwrappedArgs) {
-            argLayouts[pos] = variadicLayout(normalize(o.getClass()));
-            pos++;
+        for (Linked entry : linked)
+            if (entry.shape == shape && entry.count == count)
+                return entry.handle;
+
+        MethodHandle mh = link(allArgs, nNamedArgs);
+        synchronized (this) {
+            Linked[] current = linked;
+            if (current.length < MAX_CACHED_SHAPES) {
+                Linked[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = new Linked(count, shape, mh);
+                linked = updated;
+            }
         }
+        return mh;
+    }
+
+    // Link a downcall handle for the provided (unwrapped) arguments
+    private MethodHandle link(Object[] allArgs, int nNamedArgs) {
+        MemoryLayout[] argLayouts = new MemoryLayout[allArgs.length];
+        for (int pos = 0; pos < nNamedArgs; pos++)
+            argLayouts[pos] = function.argumentLayouts().get(pos);
+        for (int pos = nNamedArgs; pos < allArgs.length; pos++)
+            argLayouts[pos] = variadicLayout(allArgs[pos]);
 
         FunctionDescriptor f = function.returnLayout().map(
                 layout -> FunctionDescriptor.of(layout, argLayouts)).orElseGet(
                 ()     -> FunctionDescriptor.ofVoid(argLayouts));
-        MethodHandle mh = Interop.downcallHandle(symbol, f);
-        boolean needsAllocator = function.returnLayout().isPresent()
-                && function.returnLayout().get() instanceof GroupLayout;
-
-        if (needsAllocator)
-            mh = mh.bindTo(allocator);
-
-        /*
-         * Flatten argument list so that it can be passed to an asSpreader
-         * MethodHandle.
-         */
-        int length = unwrappedArgs.length;
-        Object[] allArgs = new Object[nNamedArgs + length];
-        System.arraycopy(args, 0, allArgs, 0, nNamedArgs);
-        System.arraycopy(unwrappedArgs, 0, allArgs, nNamedArgs, length);
-
-        return mh.asSpreader(Object[].class, argsCount).invoke(allArgs);
+        return spread(Interop.downcallHandle(symbol, f), allArgs.length);
     }
 
-    private static Class<?> unboxIfNeeded(Class<?> c) {
-        if (c == Boolean.class)   return boolean.class;
-        if (c == Void.class)      return void.class;
-        if (c == Byte.class)      return byte.class;
-        if (c == Character.class) return char.class;
-        if (c == Short.class)     return short.class;
-        if (c == Integer.class)   return int.class;
-        if (c == Long.class)      return long.class;
-        if (c == Float.class)     return float.class;
-        if (c == Double.class)    return double.class;
-        return c;
+    /*
+     * Convert the (unwrapped) variadic argument to the type that it will be
+     * promoted to in C: long, double or MemorySegment.
+     */
+    private static Object normalize(Object o) {
+        return switch (o) {
+            case Long l -> l;
+            case Integer i -> (long) i;
+            case Short s -> (long) s;
+            case Byte b -> (long) b;
+            case Character c -> (long) c;
+            case Double d -> d;
+            case Float f -> (double) f;
+            case MemorySegment m -> m;
+            default -> throw new IllegalArgumentException(
+                    "Invalid type for ABI: " + o.getClass().getTypeName());
+        };
     }
 
-    private Class<?> promote(Class<?> c) {
-        if (c == byte.class
-                || c == char.class
-                || c == short.class
-                || c == int.class)
-            return long.class;
-        if (c == float.class)
-            return double.class;
-        return c;
+    private static int layoutCode(Object normalized) {
+        return switch (normalized) {
+            case Long _ -> LONG;
+            case Double _ -> DOUBLE;
+            default -> ADDRESS;
+        };
     }
 
-    private Class<?> normalize(Class<?> c) {
-        c = unboxIfNeeded(c);
-        if (c.isPrimitive())
-            return promote(c);
-        if (MemorySegment.class.isAssignableFrom(c))
-            return MemorySegment.class;
-        throw new IllegalArgumentException("Invalid type for ABI: " + c.getTypeName());
+    private static MemoryLayout variadicLayout(Object normalized) {
+        return switch (normalized) {
+            case Long _ -> ValueLayout.JAVA_LONG;
+            case Double _ -> ValueLayout.JAVA_DOUBLE;
+            case MemorySegment _ -> ValueLayout.ADDRESS;
+            default -> throw new IllegalArgumentException(
+                    "Unhandled variadic argument class: " + normalized.getClass());
+        };
     }
 
-    private MemoryLayout variadicLayout(Class<?> c) {
-        if (c == long.class)
-            return ValueLayout.JAVA_LONG;
-        if (c == double.class)
-            return ValueLayout.JAVA_DOUBLE;
-        if (MemorySegment.class.isAssignableFrom(c))
-            return ValueLayout.ADDRESS;
-        throw new IllegalArgumentException("Unhandled variadic argument class: " + c);
+    // Check if the argument will be allocated in native memory
+    private static boolean needsArena(Object o) {
+        return o instanceof String
+                || (o != null && o.getClass().isArray());
     }
 
     /*
@@ -199,44 +295,48 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor function) {
      * Arrays are allocated to native memory as-is (no additional NULL is
      * appended: the caller must do this).
      */
-    private Object unwrapJavagiTypes(Object o) {
+    private static Object unwrapJavagiTypes(Object o, Arena arena) {
         return switch(o) {
             case null -> MemorySegment.NULL;
             case MemorySegment[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case boolean[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case byte[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case char[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case double[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case float[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case int[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case long[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case short[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case Proxy[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
             case String[] arr ->
-                    allocateNativeArray(arr, false, Arena.ofAuto()).address();
+                    allocateNativeArray(arr, false, arena);
+            case Enumeration[] enumerations ->
+                    allocateNativeArray(getValues(enumerations), false, arena);
             case Boolean bool ->
                     bool ? 1 : 0;
             case String string ->
-                    allocateNativeString(string, Arena.ofAuto()).address();
+                    allocateNativeString(string, arena);
             case Alias<?> alias ->
                     alias.getValue();
             case Enumeration enumeration ->
                     enumeration.getValue();
-            case Enumeration[] enumerations ->
-                    getValues(enumerations);
             case Proxy proxy ->
                     proxy.handle();
             default -> o;
         };
     }
+
+    // A linked downcall handle for a shape of variadic arguments
+    private record Linked(int count, long shape, MethodHandle handle) {
+    }
 }
@@ -0,0 +1,242 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.gnome.glib;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Helper functions to traverse the nodes of a {@code GList} or
+ * {@code GSList} by reading the {@code data} and {@code next} fields
+ * directly from native memory. Both structs start with the {@code data}
+ * pointer, followed by the {@code next} pointer, so the same field offsets
+ * apply to both.
+ * <p>
+ * The nodes are not wrapped in proxy instances, so traversing a list only
+ * allocates the Java instances of the elements.
+ */
+final class LinkedNodes {
+
+    private static final long DATA_OFFSET = 0;
+    private static final long NEXT_OFFSET = ValueLayout.ADDRESS.byteSize();
+
+    // Initial capacity of a snapshot array
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Segment that spans the entire address space, used to read node fields
+    // without creating a new segment for every node
+    private static final MemorySegment MEMORY =
+            MemorySegment.NULL.reinterpret(Long.MAX_VALUE);
+
+    private LinkedNodes() {
+    }
+
+    // Read the data pointer of a node
+    private static MemorySegment data(long node) {
+        return MEMORY.get(ValueLayout.ADDRESS, node + DATA_OFFSET);
+    }
+
+    // Read the address of the next node, or 0 at the end of the list
+    private static long next(long node) {
+        return NEXT_OFFSET == Long.BYTES
+                ? MEMORY.get(ValueLayout.JAVA_LONG, node + NEXT_OFFSET)
+                : Integer.toUnsignedLong(
+                        MEMORY.get(ValueLayout.JAVA_INT, node + NEXT_OFFSET));
+    }
+
+    /**
+     * Apply {@code action} to the elements of the list, in order.
+     *
+     * @param head   the first node of the list, or {@code null}
+     * @param make   function that creates an element for a data pointer
+     * @param action the action to apply to every element
+     * @param <E>    the element type
+     */
+    static <E> void forEach(MemorySegment head,
+                            Function<MemorySegment, E> make,
+                            Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        for (long node = head == null ? 0 : head.address();
+             node != 0;
+             node = next(node))
+            action.accept(make.apply(data(node)));
+    }
+
+    /**
+     * Count the nodes of the list.
+     *
+     * @param  head the first node of the list, or {@code null}
+     * @return the number of nodes
+     */
+    static int size(MemorySegment head) {
+        int size = 0;
+        for (long node = head == null ? 0 : head.address();
+             node != 0;
+             node = next(node))
+            size++;
+        return size;
+    }
+
+    /**
+     * Read the data pointers of all nodes in a single pass over the list.
+     *
+     * @param  head the first node of the list, or {@code null}
+     * @return the data pointers, in order
+     */
+    static MemorySegment[] snapshot(MemorySegment head) {
+        MemorySegment[] result = new MemorySegment[INITIAL_CAPACITY];
+        int size = 0;
+        for (long node = head == null ? 0 : head.address();
+             node != 0;
+             node = next(node)) {
+            if (size == result.length)
+                result = Arrays.copyOf(result, size * 2);
+            result[size++] = data(node);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Create the elements for the data pointers of all nodes in the list.
+     *
+     * @param  head the first node of the list, or {@code null}
+     * @param  make function that creates an element for a data pointer
+     * @return an array with the elements of the list, in order
+     */
+    static Object[] toArray(MemorySegment head,
+                            Function<MemorySegment, ?> make) {
+        MemorySegment[] data = snapshot(head);
+        Object[] result = new Object[data.length];
+        for (int i = 0; i < data.length; i++)
+            result[i] = make.apply(data[i]);
+        return result;
+    }
+
+    /**
+     * Create the elements for the data pointers of all nodes in the list,
+     * and store them in the provided array if it is big enough, or else in
+     * a new array of the same runtime type. As specified by
+     * {@link java.util.Collection#toArray(Object[])}, the element after the
+     * last element of the list is set to {@code null} when the array is
+     * larger than the list.
+     *
+     * @param  head the first node of the list, or {@code null}
+     * @param  make function that creates an element for a data pointer
+     * @param  a    the array into which the elements are stored
+     * @param  <T>  the component type of the array
+     * @return an array with the elements of the list, in order
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T[] toArray(MemorySegment head,
+                           Function<MemorySegment, ?> make,
+                           T[] a) {
+        MemorySegment[] data = snapshot(head);
+        T[] result = a.length >= data.length ? a
+                : (T[]) Array.newInstance(a.getClass().getComponentType(),
+                                          data.length);
+        for (int i = 0; i < data.length; i++)
+            result[i] = (T) make.apply(data[i]);
+        if (result.length > data.length)
+            result[data.length] = null;
+        return result;
+    }
+
+    /**
+     * Create a spliterator over a snapshot of the list. The data pointers of
+     * the nodes are read when the spliterator is created; the elements are
+     * created on demand. The spliterator is sized and can be split evenly,
+     * so it is suitable for parallel streams.
+     *
+     * @param  head the first node of the list, or {@code null}
+     * @param  make function that creates an element for a data pointer
+     * @param  <E>  the element type
+     * @return a spliterator over the elements of the list
+     */
+    static <E> Spliterator<E> spliterator(MemorySegment head,
+                                          Function<MemorySegment, E> make) {
+        MemorySegment[] data = snapshot(head);
+        return new SnapshotSpliterator<>(data, 0, data.length, make);
+    }
+
+    /*
+     * Spliterator over an array of data pointers, that creates the elements
+     * with the make function.
+     */
+    private static final class SnapshotSpliterator<E>
+            implements Spliterator<E> {
+
+        private final MemorySegment[] data;
+        private final Function<MemorySegment, E> make;
+        private int index;
+        private final int fence;
+
+        SnapshotSpliterator(MemorySegment[] data,
+                            int origin,
+                            int fence,
+                            Function<MemorySegment, E> make) {
+            this.data = data;
+            this.index = origin;
+            this.fence = fence;
+            this.make = make;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            if (index >= fence)
+                return false;
+            action.accept(make.apply(data[index++]));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            while (index < fence)
+                action.accept(make.apply(data[index++]));
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int origin = index;
+            int mid = (origin + fence) >>> 1;
+            if (origin >= mid)
+                return null;
+            index = mid;
+            return new SnapshotSpliterator<>(data, origin, mid, make);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+}
@@ -30,6 +30,8 @@ import java.lang.invoke.VarHandle;
 import java.util.AbstractSequentialList;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -196,13 +198,14 @@ public class SList<E> extends AbstractSequentialList<E> implements Proxy {
 
     /**
      * Retrieve the size of the list. This is an expensive operation for
-     * long lists, because the entire length must be traversed.
+     * long lists, because the entire length must be traversed. The nodes
+     * are read directly from native memory.
      *
      * @return the length of the list
      */
     @Override
     public int size() {
-        return SListNode.length(head);
+        return LinkedNodes.size(head());
     }
 
     /**
@@ -216,6 +219,61 @@ public class SList<E> extends AbstractSequentialList<E> implements Proxy {
         return head == null;
     }
 
+    /**
+     * Performs the given action for each element of the list. The nodes of
+     * the list are read directly from native memory, without creating an
+     * iterator.
+     *
+     * @param action the action to be performed for each element
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        LinkedNodes.forEach(head(), make, action);
+    }
+
+    /**
+     * Returns an array containing all elements in this list. The list is
+     * traversed only once.
+     *
+     * @return an array containing all elements in this list
+     */
+    @Override
+    public Object[] toArray() {
+        return LinkedNodes.toArray(head(), make);
+    }
+
+    /**
+     * Returns an array containing all elements in this list. The runtime
+     * type of the returned array is that of the specified array. The list
+     * is traversed only once.
+     *
+     * @param  a   the array into which the elements of the list are to be
+     *             stored, if it is big enough
+     * @param  <T> the component type of the array
+     * @return an array containing all elements in this list
+     */
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return LinkedNodes.toArray(head(), make, a);
+    }
+
+    /**
+     * Creates a {@link Spliterator} over a snapshot of the elements in this
+     * list. The nodes of the list are read when the spliterator is created,
+     * so it is sized and can be split for parallel processing. Changes to
+     * the list after the spliterator was created are not reflected.
+     *
+     * @return a spliterator over the elements in this list
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return LinkedNodes.spliterator(head(), make);
+    }
+
+    private MemorySegment head() {
+        return head == null ? null : head.handle();
+    }
+
     private MemorySegment getAddress(Object o) {
         return switch (o) {
             case MemorySegment m -> m;
@@ -280,10 +338,6 @@ public class SList<E> extends AbstractSequentialList<E> implements Proxy {
                         ValueLayout.ADDRESS, ValueLayout.ADDRESS,
                         ValueLayout.ADDRESS), false);
 
-        static MethodHandle g_slist_length = Interop.downcallHandle(
-                "g_slist_length", FunctionDescriptor.of(ValueLayout.JAVA_INT,
-                        ValueLayout.ADDRESS), false);
-
         /**
          * Read the value of the field {@code data}.
          *
@@ -362,24 +416,5 @@ public class SList<E> extends AbstractSequentialList<E> implements Proxy {
                 throw new AssertionError(_err);
             }
         }
-
-        /**
-         * Gets the number of elements in a {@code GSList}.
-         * <p>
-         * This function iterates over the whole list to count its elements. To
-         * check whether the list is non-empty, it is faster to check
-         * {@code list} against {@code null}.
-         *
-         * @param  list a {@code GSList}
-         * @return the number of elements in the {@code GSList}
-         */
-        static int length(SListNode list) {
-            var listPtr = list == null ? MemorySegment.NULL : list.handle();
-            try {
-                return (int) g_slist_length.invokeExact(listPtr);
-            } catch (Throwable _err) {
-                throw new AssertionError(_err);
-            }
-        }
     }
 }
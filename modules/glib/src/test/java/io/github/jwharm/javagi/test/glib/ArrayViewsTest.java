@@ -0,0 +1,166 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.glib.types.ArrayViews;
+import io.github.jwharm.javagi.interop.Interop;
+import org.gnome.glib.Array;
+import org.gnome.glib.ByteArray;
+import org.gnome.glib.PtrArray;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test list views and memory segments of GPtrArray, GArray and GByteArray
+ */
+public class ArrayViewsTest {
+
+    private static final StructLayout POINT = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("x"),
+            ValueLayout.JAVA_INT.withName("y"));
+
+    private static final MethodHandle g_ptr_array_new = Interop.downcallHandle(
+            "g_ptr_array_new",
+            FunctionDescriptor.of(ValueLayout.ADDRESS), false);
+
+    private static final MethodHandle g_ptr_array_add = Interop.downcallHandle(
+            "g_ptr_array_add",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS), false);
+
+    private static final MethodHandle g_array_new = Interop.downcallHandle(
+            "g_array_new",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_INT, ValueLayout.JAVA_INT), false);
+
+    private static final MethodHandle g_array_append_vals = Interop.downcallHandle(
+            "g_array_append_vals",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS, ValueLayout.JAVA_INT), false);
+
+    private static final MethodHandle g_byte_array_new = Interop.downcallHandle(
+            "g_byte_array_new",
+            FunctionDescriptor.of(ValueLayout.ADDRESS), false);
+
+    private static final MethodHandle g_byte_array_append = Interop.downcallHandle(
+            "g_byte_array_append",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS, ValueLayout.JAVA_INT), false);
+
+    @Test
+    void testPtrArrayView() throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            PtrArray array = new PtrArray((MemorySegment) g_ptr_array_new.invokeExact());
+            MemorySegment[] input = {
+                    arena.allocate(10),
+                    arena.allocate(10),
+                    arena.allocate(10)
+            };
+            for (MemorySegment element : input)
+                g_ptr_array_add.invokeExact(array.handle(), element);
+
+            List<Long> list = ArrayViews.ptrArrayView(array, MemorySegment::address);
+            assertEquals(3, list.size());
+            for (int i = 0; i < input.length; i++)
+                assertEquals(input[i].address(), list.get(i));
+            assertEquals(3, list.toArray().length);
+            assertThrows(UnsupportedOperationException.class, () -> list.add(0L));
+
+            // The view reflects later changes to the array
+            g_ptr_array_add.invokeExact(array.handle(), arena.allocate(10));
+            assertEquals(4, list.size());
+        }
+    }
+
+    @Test
+    void testEmptyPtrArray() throws Throwable {
+        // An empty GPtrArray has a NULL pdata pointer
+        PtrArray array = new PtrArray((MemorySegment) g_ptr_array_new.invokeExact());
+        List<Long> list = array.asList(MemorySegment::address);
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.toArray().length);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+    }
+
+    @Test
+    void testArrayView() throws Throwable {
+        Array array = newPointArray(3);
+
+        List<MemorySegment> list = ArrayViews.arrayView(array, POINT, point -> point);
+        assertEquals(3, list.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(POINT.byteSize(), list.get(i).byteSize());
+            assertEquals(i, list.get(i).get(ValueLayout.JAVA_INT, 0));
+            assertEquals(i * 10, list.get(i).get(ValueLayout.JAVA_INT, 4));
+        }
+    }
+
+    @Test
+    void testArrayViewLayoutMismatch() throws Throwable {
+        Array array = newPointArray(1);
+        MemoryLayout point3d = MemoryLayout.structLayout(
+                ValueLayout.JAVA_INT.withName("x"),
+                ValueLayout.JAVA_INT.withName("y"),
+                ValueLayout.JAVA_INT.withName("z"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ArrayViews.arrayView(array, ValueLayout.JAVA_INT, point -> point));
+        assertThrows(IllegalArgumentException.class,
+                () -> ArrayViews.arrayView(array, point3d, point -> point));
+    }
+
+    @Test
+    void testArraySegment() throws Throwable {
+        Array array = newPointArray(3);
+        MemorySegment segment = ArrayViews.arraySegment(array);
+        assertEquals(3 * POINT.byteSize(), segment.byteSize());
+        assertArrayEquals(new int[] {0, 0, 1, 10, 2, 20},
+                segment.toArray(ValueLayout.JAVA_INT));
+    }
+
+    @Test
+    void testByteArray() throws Throwable {
+        byte[] input = "1234567890".getBytes();
+        ByteArray array = new ByteArray((MemorySegment) g_byte_array_new.invokeExact());
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment data = arena.allocate(input.length);
+            data.copyFrom(MemorySegment.ofArray(input));
+            var _ = (MemorySegment) g_byte_array_append.invokeExact(
+                    array.handle(), data, input.length);
+        }
+
+        MemorySegment segment = ArrayViews.byteArraySegment(array);
+        assertEquals(input.length, segment.byteSize());
+        assertArrayEquals(input, segment.toArray(ValueLayout.JAVA_BYTE));
+        assertArrayEquals(input, array.toByteArray());
+    }
+
+    @Test
+    void testEmptyByteArray() throws Throwable {
+        ByteArray array = new ByteArray((MemorySegment) g_byte_array_new.invokeExact());
+        assertEquals(0, ArrayViews.byteArraySegment(array).byteSize());
+        assertArrayEquals(new byte[0], array.toByteArray());
+    }
+
+    // Create a GArray with points {i, i * 10}
+    private static Array newPointArray(int length) throws Throwable {
+        Array array = new Array((MemorySegment) g_array_new.invokeExact(
+                0, 0, (int) POINT.byteSize()));
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment points = arena.allocate(POINT, length);
+            for (int i = 0; i < length; i++) {
+                points.setAtIndex(ValueLayout.JAVA_INT, i * 2L, i);
+                points.setAtIndex(ValueLayout.JAVA_INT, i * 2L + 1, i * 10);
+            }
+            var _ = (MemorySegment) g_array_append_vals.invokeExact(
+                    array.handle(), points, length);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.jwharm.javagi.test.glib;
+
+import org.gnome.glib.Bytes;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test zero-copy access to GBytes
+ */
+public class BytesTest {
+
+    @Test
+    void testAsSegment() {
+        byte[] input = "1234567890".getBytes();
+        Bytes bytes = new Bytes(input);
+        MemorySegment segment = bytes.asSegment();
+        assertTrue(segment.isReadOnly());
+        assertArrayEquals(input, segment.toArray(ValueLayout.JAVA_BYTE));
+
+        ByteBuffer buffer = bytes.asByteBuffer();
+        assertTrue(buffer.isReadOnly());
+        assertEquals(input.length, buffer.remaining());
+        assertEquals(input[3], buffer.get(3));
+    }
+
+    @Test
+    void testEmpty() {
+        Bytes bytes = new Bytes(new byte[0]);
+        MemorySegment segment = bytes.asSegment();
+        assertEquals(0, segment.byteSize());
+        assertTrue(segment.isReadOnly());
+
+        ByteBuffer buffer = bytes.asByteBuffer();
+        assertTrue(buffer.isReadOnly());
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void testFromSegment() {
+        byte[] input = "1234567890".getBytes();
+        MemorySegment data = Arena.ofAuto().allocate(input.length);
+        data.copyFrom(MemorySegment.ofArray(input));
+        Bytes bytes = Bytes.fromSegment(data);
+
+        // The GBytes points to the same memory
+        assertEquals(data.address(), bytes.asSegment().address());
+        assertEquals(input.length, bytes.getSize());
+    }
+}
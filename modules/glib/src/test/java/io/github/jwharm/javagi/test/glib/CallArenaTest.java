@@ -0,0 +1,64 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.interop.CallArena;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.ValueLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check that a CallArena returns zero-initialized memory, that nested
+ * CallArenas don't overlap, and that large allocations fall back to a
+ * confined arena.
+ */
+public class CallArenaTest {
+
+    @Test
+    public void nestedArenas() {
+        try (var outer = CallArena.open()) {
+            var first = outer.allocate(ValueLayout.JAVA_LONG);
+            assertEquals(0L, first.get(ValueLayout.JAVA_LONG, 0));
+            first.set(ValueLayout.JAVA_LONG, 0, 42L);
+
+            try (var inner = CallArena.open()) {
+                var second = inner.allocate(ValueLayout.JAVA_LONG);
+                assertEquals(0L, second.get(ValueLayout.JAVA_LONG, 0));
+                second.set(ValueLayout.JAVA_LONG, 0, -1L);
+            }
+
+            var third = outer.allocate(ValueLayout.JAVA_LONG);
+            assertEquals(0L, third.get(ValueLayout.JAVA_LONG, 0));
+            assertEquals(42L, first.get(ValueLayout.JAVA_LONG, 0));
+        }
+    }
+
+    @Test
+    public void overflow() {
+        var arena = CallArena.open();
+        var large = arena.allocate(1024 * 1024, 8);
+        assertEquals(1024 * 1024, large.byteSize());
+        assertEquals(0L, large.get(ValueLayout.JAVA_LONG, 1024 * 1024 - 8));
+        arena.close();
+        assertFalse(large.scope().isAlive());
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.jwharm.javagi.test.glib;
 
+import io.github.jwharm.javagi.base.Flags;
 import io.github.jwharm.javagi.interop.Interop;
 import org.gnome.glib.AsciiType;
 import org.junit.jupiter.api.Test;
@@ -7,7 +8,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Set;
 
 import static org.gnome.glib.AsciiType.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Test conversion of int to EnumSet and back
@@ -22,4 +23,16 @@ public class FlagsTest {
         int output = Interop.enumSetToInt(set);
         assertEquals(input, output);
     }
+
+    @Test
+    void testCachedFlags() {
+        int input = 1 + 2 + 4 + 8 + 64 + 512;
+        var flags = Flags.of(AsciiType.class, AsciiType::of, input);
+        assertEquals(Set.of(ALNUM, ALPHA, CNTRL, DIGIT, PRINT, UPPER), flags);
+        assertTrue(flags.isSet(DIGIT));
+        assertFalse(flags.isSet(SPACE));
+        assertEquals(input, Interop.enumSetToInt(flags));
+        assertSame(flags, Flags.of(AsciiType.class, AsciiType::of, input));
+        assertThrows(UnsupportedOperationException.class, () -> flags.add(SPACE));
+    }
 }
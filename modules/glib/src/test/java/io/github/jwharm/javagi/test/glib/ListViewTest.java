@@ -0,0 +1,130 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.base.Proxy;
+import io.github.jwharm.javagi.interop.Interop;
+import io.github.jwharm.javagi.interop.NativeList;
+import org.gnome.glib.GLib;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test list views of native arrays
+ */
+public class ListViewTest {
+
+    private record Element(MemorySegment handle) implements Proxy {
+    }
+
+    private static final StructLayout POINT = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("x"),
+            ValueLayout.JAVA_INT.withName("y"));
+
+    @Test
+    void testNullTerminatedProxyList() {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment[] input = {
+                    arena.allocate(10),
+                    arena.allocate(10),
+                    arena.allocate(10)
+            };
+            MemorySegment array = Interop.allocateNativeArray(input, true, arena);
+            List<Element> list = Interop.getProxyListFrom(array, Element::new, null, false);
+
+            assertInstanceOf(NativeList.class, list);
+            assertInstanceOf(RandomAccess.class, list);
+            assertEquals(input.length, list.size());
+            for (int i = 0; i < input.length; i++)
+                assertEquals(input[i].address(), list.get(i).handle().address());
+        }
+    }
+
+    @Test
+    void testSizedProxyList() {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment[] input = {
+                    arena.allocate(10),
+                    arena.allocate(10),
+                    arena.allocate(10)
+            };
+            MemorySegment array = Interop.allocateNativeArray(input, false, arena);
+            List<Element> list = Interop.getProxyListFrom(array, 2, Element::new, null, false);
+
+            assertEquals(2, list.size());
+            assertEquals(input[1].address(), list.get(1).handle().address());
+            assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+            assertThrows(UnsupportedOperationException.class, () -> list.add(list.getFirst()));
+        }
+    }
+
+    @Test
+    void testNullAddress() {
+        assertNull(Interop.getProxyListFrom(MemorySegment.NULL, Element::new, null, false));
+        assertNull(Interop.getProxyListFrom(MemorySegment.NULL, 0, Element::new, null, false));
+        assertNull(Interop.getStructListFrom(MemorySegment.NULL, 0, Element::new, POINT, null, false));
+    }
+
+    @Test
+    void testStructList() {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment array = arena.allocate(POINT, 3);
+            for (int i = 0; i < 3; i++) {
+                array.setAtIndex(ValueLayout.JAVA_INT, i * 2L, i);
+                array.setAtIndex(ValueLayout.JAVA_INT, i * 2L + 1, i * 10);
+            }
+            List<Element> list = Interop.getStructListFrom(array, 3, Element::new, POINT, null, false);
+
+            assertEquals(3, list.size());
+            for (int i = 0; i < 3; i++) {
+                MemorySegment point = list.get(i).handle();
+                assertEquals(POINT.byteSize(), point.byteSize());
+                assertEquals(i, point.get(ValueLayout.JAVA_INT, 0));
+                assertEquals(i * 10, point.get(ValueLayout.JAVA_INT, 4));
+            }
+        }
+    }
+
+    @Test
+    void testElementsAreCreatedOnDemand() {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment array = arena.allocate(POINT, 100);
+            AtomicInteger created = new AtomicInteger();
+            List<Element> list = Interop.getStructListFrom(array, 100, address -> {
+                created.incrementAndGet();
+                return new Element(address);
+            }, POINT, null, false);
+
+            assertEquals(100, list.size());
+            assertEquals(0, created.get());
+            list.get(42);
+            assertEquals(1, created.get());
+        }
+    }
+
+    @Test
+    void testFreeList() {
+        // The array is allocated by GLib and freed with g_free() after the
+        // list is unreachable
+        MemorySegment array = GLib.malloc0(POINT.byteSize() * 4);
+        List<Element> list = Interop.getStructListFrom(array, 4, Element::new, POINT, null, true);
+        assertEquals(4, list.size());
+        assertEquals(array.address() + POINT.byteSize() * 3,
+                list.get(3).handle().address());
+
+        // The elements keep the array alive
+        MemorySegment element = list.get(2).handle();
+        list = null;
+        System.gc();
+        element.set(ValueLayout.JAVA_INT, 0, 123);
+        assertEquals(123, element.get(ValueLayout.JAVA_INT, 0));
+    }
+}
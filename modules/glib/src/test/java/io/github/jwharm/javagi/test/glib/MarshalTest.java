@@ -68,7 +68,7 @@ public class MarshalTest {
         try (Arena arena = Arena.ofConfined()) {
             boolean[] input = {true, false, true, true, false};
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            boolean[] output = Interop.getBooleanArrayFrom(allocation, 5, arena, false);
+            boolean[] output = Interop.getBooleanArrayFrom(allocation, 5, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
         }
     }
@@ -78,11 +78,11 @@ public class MarshalTest {
         try (Arena arena = Arena.ofConfined()) {
             byte[] input = "1234567890".getBytes();
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            byte[] output = Interop.getByteArrayFrom(allocation, input.length, arena, false);
+            byte[] output = Interop.getByteArrayFrom(allocation, input.length, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
 
             allocation = Interop.allocateNativeArray(input, true, arena);
-            output = Interop.getByteArrayFrom(allocation, arena, false);
+            output = Interop.getByteArrayFrom(allocation, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
         }
     }
@@ -92,7 +92,7 @@ public class MarshalTest {
         try (Arena arena = Arena.ofConfined()) {
             char[] input = "1234567890".toCharArray();
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            char[] output = Interop.getCharacterArrayFrom(allocation, input.length, arena, false);
+            char[] output = Interop.getCharacterArrayFrom(allocation, input.length, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
         }
     }
@@ -102,7 +102,7 @@ public class MarshalTest {
         try (Arena arena = Arena.ofConfined()) {
             double[] input = {1d, 2d, 3d, Math.PI, Double.MIN_VALUE, Double.MAX_VALUE};
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            double[] output = Interop.getDoubleArrayFrom(allocation, input.length, arena, false);
+            double[] output = Interop.getDoubleArrayFrom(allocation, input.length, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
         }
     }
@@ -112,7 +112,7 @@ public class MarshalTest {
         try (Arena arena = Arena.ofConfined()) {
             float[] input = {1.2f, 2.3f, 3.35f, Float.MIN_VALUE, Float.MAX_VALUE};
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            float[] output = Interop.getFloatArrayFrom(allocation, input.length, arena, false);
+            float[] output = Interop.getFloatArrayFrom(allocation, input.length, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
         }
     }
@@ -122,10 +122,10 @@ public class MarshalTest {
         try (Arena arena = Arena.ofConfined()) {
             int[] input = {1, 2, 3, 0, Integer.MIN_VALUE, Integer.MAX_VALUE};
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            int[] output = Interop.getIntegerArrayFrom(allocation, input.length, arena, false);
+            int[] output = Interop.getIntegerArrayFrom(allocation, input.length, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
 
-            output = Interop.getIntegerArrayFrom(allocation, arena, false);
+            output = Interop.getIntegerArrayFrom(allocation, false);
             assertEquals(3, output.length);
         }
     }
@@ -135,7 +135,7 @@ public class MarshalTest {
         try (Arena arena = Arena.ofConfined()) {
             long[] input = {1L, 2L, 3L, Long.MIN_VALUE, Long.MAX_VALUE};
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            long[] output = Interop.getLongArrayFrom(allocation, input.length, arena, false);
+            long[] output = Interop.getLongArrayFrom(allocation, input.length, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
         }
     }
@@ -146,7 +146,7 @@ public class MarshalTest {
             short[] input = {(short) 1, (short) 2, (short) 3,
                     Short.MIN_VALUE, Short.MAX_VALUE};
             MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
-            short[] output = Interop.getShortArrayFrom(allocation, input.length, arena, false);
+            short[] output = Interop.getShortArrayFrom(allocation, input.length, false);
             assertEquals(Arrays.toString(input), Arrays.toString(output));
         }
     }
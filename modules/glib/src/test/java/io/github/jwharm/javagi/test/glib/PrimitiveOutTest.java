@@ -0,0 +1,141 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.base.BooleanOut;
+import io.github.jwharm.javagi.base.DoubleOut;
+import io.github.jwharm.javagi.base.GErrorException;
+import io.github.jwharm.javagi.base.IntOut;
+import io.github.jwharm.javagi.base.LongOut;
+import io.github.jwharm.javagi.base.Out;
+import org.gnome.glib.DateTime;
+import org.gnome.glib.GLib;
+import org.gnome.glib.Regex;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.ValueLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the primitive out-parameter holders
+ */
+public class PrimitiveOutTest {
+
+    @Test
+    void testIntOut() {
+        IntOut out = new IntOut();
+        assertEquals(0, out.getInt());
+        out.setInt(42);
+        assertEquals(42, out.getInt());
+        assertEquals(42, out.segment().get(ValueLayout.JAVA_INT, 0));
+
+        // Native code writes into the segment
+        out.segment().set(ValueLayout.JAVA_INT, 0, -7);
+        assertEquals(-7, out.get());
+
+        out.set(null);
+        assertEquals(0, out.getInt());
+        assertEquals(5, new IntOut(5).getInt());
+    }
+
+    @Test
+    void testLongOut() {
+        LongOut out = new LongOut(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, out.getLong());
+        assertEquals(Long.MAX_VALUE, out.segment().get(ValueLayout.JAVA_LONG, 0));
+        out.set(-1L);
+        assertEquals(-1L, out.get());
+        assertEquals(0L, new LongOut().getLong());
+    }
+
+    @Test
+    void testDoubleOut() {
+        DoubleOut out = new DoubleOut(1.5);
+        assertEquals(1.5, out.getDouble());
+        out.segment().set(ValueLayout.JAVA_DOUBLE, 0, 2.25);
+        assertEquals(2.25, out.get());
+        assertEquals(0.0, new DoubleOut().getDouble());
+    }
+
+    @Test
+    void testBooleanOut() {
+        BooleanOut out = new BooleanOut();
+        assertFalse(out.getBoolean());
+        out.setBoolean(true);
+        assertEquals(1, out.segment().get(ValueLayout.JAVA_INT, 0));
+
+        // Any nonzero gboolean value is true
+        out.segment().set(ValueLayout.JAVA_INT, 0, 2);
+        assertTrue(out.get());
+        out.set(null);
+        assertFalse(out.getBoolean());
+    }
+
+    @Test
+    void testSeparateMemory() {
+        // Holders that are sliced from the same block don't overlap
+        IntOut a = new IntOut(1);
+        LongOut b = new LongOut(2);
+        IntOut c = new IntOut(3);
+        assertEquals(1, a.getInt());
+        assertEquals(2, b.getLong());
+        assertEquals(3, c.getInt());
+        assertNotEquals(a.segment().address(), c.segment().address());
+        assertEquals(0, b.segment().address() % ValueLayout.JAVA_LONG.byteAlignment());
+        assertEquals(Integer.BYTES, a.segment().byteSize());
+    }
+
+    @Test
+    void testManyHolders() {
+        // Allocate more holders than fit in a single block
+        IntOut[] outs = new IntOut[1000];
+        for (int i = 0; i < outs.length; i++)
+            outs[i] = new IntOut(i);
+        for (int i = 0; i < outs.length; i++)
+            assertEquals(i, outs[i].getInt());
+    }
+
+    @Test
+    void testGeneratedOverload() {
+        // g_date_time_get_ymd() with optional int out-parameters
+        DateTime dt = DateTime.utc(2024, 2, 29, 12, 0, 0);
+        IntOut year = new IntOut();
+        IntOut month = new IntOut();
+        IntOut day = new IntOut();
+        dt.getYmd(year, month, day);
+        assertEquals(2024, year.getInt());
+        assertEquals(2, month.getInt());
+        assertEquals(29, day.getInt());
+
+        // A null holder for an optional out-parameter is passed as NULL
+        day.setInt(0);
+        dt.getYmd(null, null, day);
+        assertEquals(29, day.getInt());
+    }
+
+    @Test
+    void testGeneratedOverloadRequiredHolder() {
+        // g_unichar_get_mirror_char() with a required out-parameter
+        IntOut mirrored = new IntOut();
+        assertTrue(GLib.unicharGetMirrorChar('(', mirrored));
+        assertEquals(')', mirrored.getInt());
+
+        // A null holder for a required out-parameter is not passed as NULL
+        assertTrue(GLib.unicharGetMirrorChar('(', (IntOut) null));
+    }
+
+    @Test
+    void testGeneratedBooleanOverload() throws GErrorException {
+        // g_regex_check_replacement() with a gboolean out-parameter
+        BooleanOut hasReferences = new BooleanOut();
+        assertTrue(Regex.checkReplacement("\\0", hasReferences));
+        assertTrue(hasReferences.getBoolean());
+        assertTrue(Regex.checkReplacement("plain text", hasReferences));
+        assertFalse(hasReferences.getBoolean());
+    }
+
+    @Test
+    void testIsOut() {
+        Out<Integer> out = new IntOut(9);
+        assertEquals(9, out.get());
+    }
+}
@@ -23,9 +23,7 @@ import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.ref.Cleaner;
-import java.lang.ref.WeakReference;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import io.github.jwharm.javagi.base.Floating;
@@ -41,13 +39,15 @@ import io.github.jwharm.javagi.base.Proxy;
 /**
  * Caches Proxy instances so the same instance is used for the same memory
  * address.
+ * <p>
+ * The cache counts the number of lookups that returned a cached instance
+ * ({@link #hits()}) and that didn't ({@link #misses()}).
  */
 public class InstanceCache {
 
-    private final static Map<MemorySegment, Proxy> strongReferences
-            = new ConcurrentHashMap<>();
-    private final static Map<MemorySegment, WeakReference<Proxy>> weakReferences
-            = new ConcurrentHashMap<>();
+    private final static InstanceMap references = new InstanceMap();
+    private final static LongAdder hits = new LongAdder();
+    private final static LongAdder misses = new LongAdder();
     private static final Cleaner CLEANER = Cleaner.create();
 
     private static final MethodHandle g_object_add_toggle_ref =
@@ -97,7 +97,7 @@ public class InstanceCache {
 
     /**
      * Internal helper function to retrieve a Proxy object from the
-     * Strong/WeakReferences caches.
+     * cache.
      *
      * @param  address get the Proxy object for this address from the cache
      * @return the instance (if found), or null (if not found)
@@ -105,22 +105,50 @@ public class InstanceCache {
     private static Proxy get(MemorySegment address) {
         
         // Null check on the memory address
-        if (address == null || address.equals(MemorySegment.NULL))
+        if (address == null || address.address() == 0L)
             return null;
 
         // Get instance from cache
-        Proxy instance = strongReferences.get(address);
-        if (instance != null)
+        InstanceMap.Entry entry = references.get(address.address());
+        Proxy instance = entry == null ? null : entry.get();
+        if (instance != null) {
+            hits.increment();
             return instance;
-
-        WeakReference<Proxy> weakRef = weakReferences.get(address);
-        if (weakRef != null && weakRef.get() != null)
-            return weakRef.get();
+        }
 
         // Not found
+        misses.increment();
         return null;
     }
 
+    /**
+     * Get the number of lookups that returned a cached instance.
+     *
+     * @return the number of cache hits
+     */
+    public static long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that did not find a cached instance.
+     *
+     * @return the number of cache misses
+     */
+    public static long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of instances in the cache. This includes instances that
+     * have been garbage-collected, but not yet removed from the cache.
+     *
+     * @return the number of cached instances
+     */
+    public static int size() {
+        return references.size();
+    }
+
     /**
      * Get a {@link Proxy} object for the provided native memory address. If a
      * Proxy object does not yet exist for this address, a new Proxy object is
@@ -186,7 +214,7 @@ public class InstanceCache {
         }
 
         // Get constructor from the type registry
-        Type type = new TypeClass(address).readGType();
+        long type = TypeCache.readGTypeFromClass(address);
         Function<MemorySegment, ? extends Proxy> ctor =
                 TypeCache.getConstructor(type, null);
         if (ctor == null)
@@ -263,21 +291,23 @@ public class InstanceCache {
      * @return the cached GObject instance
      */
     public static Proxy put(MemorySegment address, Proxy object) {
-        // Do not put a new instance if it already exists
-        if (strongReferences.containsKey(address)
-                || weakReferences.containsKey(address))
+        if (address == null || address.address() == 0L)
             return object;
 
-        GLibLogger.debug("New %s %ld",
-                object.getClass().getName(),
-                address == null ? 0L : address.address());
-
         // Put the instance in the cache. If another thread did this (while we
         // were creating a new instance), putIfAbsent() will return that
-        // instance.
-        Proxy existingInstance = strongReferences.putIfAbsent(address, object);
-        if (existingInstance != null)
-            return existingInstance;
+        // instance. Do not put a new instance if the existing instance was
+        // garbage-collected, but not yet removed from the cache.
+        InstanceMap.Entry existing = references.putIfAbsent(address.address(), object);
+        if (existing != null) {
+            Proxy existingInstance = existing.get();
+            return existingInstance == null ? object : existingInstance;
+        }
+
+        if (GLibLogger.isDebugEnabled())
+            GLibLogger.debug("New %s %ld",
+                    object.getClass().getName(),
+                    address.address());
 
         // Sink floating references
         if (object instanceof Floating floatingReference)
@@ -319,16 +349,18 @@ public class InstanceCache {
     private static void handleToggleNotify(MemorySegment ignored,
                                            MemorySegment object,
                                            int isLastRef) {
+        InstanceMap.Entry entry = references.get(object.address());
+        if (entry == null)
+            return;
+
         if (isLastRef != 0) {
-            Proxy proxy = strongReferences.remove(object);
             GLibLogger.debug("Toggle %ld to weak reference (is last ref)",
-                    object == null ? 0 : object.address());
-            weakReferences.put(object, new WeakReference<>(proxy));
+                    object.address());
+            entry.strong = null;
         } else {
-            WeakReference<Proxy> proxy = weakReferences.remove(object);
             GLibLogger.debug("Toggle %ld to strong reference",
-                    object == null ? 0 : object.address());
-            strongReferences.put(object, proxy.get());
+                    object.address());
+            entry.strong = entry.weak.get();
         }
     }
 
@@ -351,7 +383,7 @@ public class InstanceCache {
             } catch (Throwable _err) {
                 throw new AssertionError("Unexpected exception occurred: ", _err);
             }
-            InstanceCache.weakReferences.remove(address);
+            InstanceCache.references.remove(address.address());
         }
     }
 }
@@ -0,0 +1,180 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.gobject;
+
+import io.github.jwharm.javagi.base.Proxy;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open-addressing hash map from a native memory address to the cached Proxy
+ * instance for that address, used by the {@link InstanceCache}.
+ * <p>
+ * The map is keyed by the raw {@code long} address, so lookups don't need to
+ * create or hash a {@code MemorySegment}. Reads are lock-free: they probe the
+ * current table without locking. Modifications are synchronized, and a
+ * resized table is published with a volatile write. Removed entries are
+ * replaced with a tombstone, so concurrent readers can continue probing.
+ */
+final class InstanceMap {
+
+    private static final Entry TOMBSTONE = new Entry(0L, null);
+
+    private volatile AtomicReferenceArray<Entry> table =
+            new AtomicReferenceArray<>(64);
+
+    // Number of live entries, and number of used (live + tombstone) slots
+    private int size;
+    private int used;
+
+    /**
+     * A cached instance. The weak reference is always set; the strong
+     * reference is only set while the native object holds other references
+     * than the toggle reference from Java.
+     */
+    static final class Entry {
+        final long address;
+        final WeakReference<Proxy> weak;
+        volatile Proxy strong;
+
+        private Entry(long address, Proxy proxy) {
+            this.address = address;
+            this.weak = new WeakReference<>(proxy);
+            this.strong = proxy;
+        }
+
+        /**
+         * Get the cached instance.
+         *
+         * @return the instance, or null when it has been garbage-collected
+         */
+        Proxy get() {
+            Proxy proxy = strong;
+            return proxy != null ? proxy : weak.get();
+        }
+    }
+
+    private static int hash(long address) {
+        long h = address * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Get the entry for this address. This method does not lock.
+     *
+     * @param  address the memory address
+     * @return the entry, or null if the address is not in the map
+     */
+    Entry get(long address) {
+        AtomicReferenceArray<Entry> tab = table;
+        int mask = tab.length() - 1;
+        for (int i = hash(address) & mask; ; i = (i + 1) & mask) {
+            Entry e = tab.get(i);
+            if (e == null)
+                return null;
+            if (e != TOMBSTONE && e.address == address)
+                return e;
+        }
+    }
+
+    /**
+     * Add a new entry for this address, unless the address is already in the
+     * map.
+     *
+     * @param  address the memory address
+     * @param  proxy   the instance to add (with a strong reference)
+     * @return the existing entry, or null if the new entry was added
+     */
+    synchronized Entry putIfAbsent(long address, Proxy proxy) {
+        Entry existing = get(address);
+        if (existing != null)
+            return existing;
+
+        if (used + 1 > table.length() / 2)
+            rehash();
+
+        AtomicReferenceArray<Entry> tab = table;
+        int mask = tab.length() - 1;
+        int i = hash(address) & mask;
+        while (tab.get(i) != null && tab.get(i) != TOMBSTONE)
+            i = (i + 1) & mask;
+        if (tab.get(i) == null)
+            used++;
+        size++;
+        tab.set(i, new Entry(address, proxy));
+        return null;
+    }
+
+    /**
+     * Remove the entry for this address.
+     *
+     * @param address the memory address
+     */
+    synchronized void remove(long address) {
+        AtomicReferenceArray<Entry> tab = table;
+        int mask = tab.length() - 1;
+        for (int i = hash(address) & mask; ; i = (i + 1) & mask) {
+            Entry e = tab.get(i);
+            if (e == null)
+                return;
+            if (e != TOMBSTONE && e.address == address) {
+                tab.set(i, TOMBSTONE);
+                size--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /*
+     * Copy the live entries into a new table, dropping the tombstones. The
+     * table grows when it would otherwise be more than a quarter full with
+     * live entries.
+     */
+    private void rehash() {
+        AtomicReferenceArray<Entry> old = table;
+        int capacity = old.length();
+        while (size + 1 > capacity / 4)
+            capacity *= 2;
+
+        var tab = new AtomicReferenceArray<Entry>(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < old.length(); j++) {
+            Entry e = old.get(j);
+            if (e == null || e == TOMBSTONE)
+                continue;
+            int i = hash(e.address) & mask;
+            while (tab.get(i) != null)
+                i = (i + 1) & mask;
+            tab.set(i, e);
+        }
+        used = size;
+        table = tab;
+    }
+}
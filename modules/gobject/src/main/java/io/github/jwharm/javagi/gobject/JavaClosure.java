@@ -20,14 +20,22 @@
 package io.github.jwharm.javagi.gobject;
 
 import java.lang.foreign.MemorySegment;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BooleanSupplier;
 
+import io.github.jwharm.javagi.gobject.types.Types;
 import io.github.jwharm.javagi.interop.MemoryCleaner;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
+import org.gnome.glib.Type;
 import org.gnome.gobject.Closure;
 import org.gnome.gobject.Value;
 
@@ -35,8 +43,9 @@ import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
 
 /**
  * An implementation of {@link Closure} that can be used with Java callbacks.
- * In most cases, the callback will be invoked using reflection. For two common 
- * cases (Runnable and BooleanSupplier), the callback will be invoked directly.
+ * In most cases, the callback will be invoked through a {@link MethodHandle}
+ * that is adapted to the types of the GValues. For two common cases (Runnable
+ * and BooleanSupplier), the callback will be invoked directly.
  */
 public class JavaClosure extends Closure {
 
@@ -74,10 +83,10 @@ public class JavaClosure extends Closure {
     }
 
     /**
-     * Construct a {@link Closure} that will invoke the provided Java lambda
-     * using reflection. The Closure function arguments are read from the
-     * argument-{@link Value} containers and passed to the lambda. The return
-     * value of the lambda is put in the Closure return-{@link Value}.
+     * Construct a {@link Closure} that will invoke the provided Java lambda.
+     * The Closure function arguments are read from the argument-{@link Value}
+     * containers and passed to the lambda. The return value of the lambda
+     * is put in the Closure return-{@link Value}.
      *
      * @param lambda a lambda (instance of a functional interface)
      * @throws IllegalArgumentException if the lambda is not an instance of a
@@ -122,10 +131,16 @@ public class JavaClosure extends Closure {
     }
 
     /**
-     * Construct a {@link Closure} that will invoke the provided Java method
-     * using reflection. The Closure function arguments are read from the
-     * argument-{@link Value} containers and passed to the method. The return
-     * value of the method is put in the Closure return-{@link Value}.
+     * Construct a {@link Closure} that will invoke the provided Java method.
+     * The Closure function arguments are read from the argument-{@link Value}
+     * containers and passed to the method. The return value of the method is
+     * put in the Closure return-{@link Value}.
+     * <p>
+     * The method is converted into a {@link MethodHandle} that reads the
+     * arguments from the GValues and writes the return value, when the
+     * closure is invoked for the first time. The MethodHandle is shared with
+     * other closures for the same method, and reused as long as the closure
+     * is invoked with GValues of the same types.
      *
      * @param instance a class instance on which the provided method will be
      *                 invoked. When the method is static, this parameter is
@@ -135,44 +150,264 @@ public class JavaClosure extends Closure {
      */
     public JavaClosure(Object instance, Method method) {
         this(simple((int) getMemoryLayout().byteSize(), null).handle());
-        setMarshal((closure, returnValue, paramValues, hint, data) -> {
+        var marshaller = new MethodMarshaller(instance, method);
+        setMarshal((closure, returnValue, paramValues, hint, data) ->
+                marshaller.marshal(returnValue, paramValues));
+    }
+
+    /*
+     * Typed getter and setter of a GValue, for a Java type that maps
+     * directly to a fundamental GType.
+     */
+    private record Accessors(Type type, MethodHandle getter, MethodHandle setter) {
+    }
+
+    private static final MethodHandle VALUE_TO_OBJECT;
+    private static final MethodHandle WRITE_RESULT;
+    private static final Map<Class<?>, Accessors> ACCESSORS;
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            VALUE_TO_OBJECT = lookup.findStatic(ValueUtil.class, "valueToObject",
+                    MethodType.methodType(Object.class, Value.class));
+            WRITE_RESULT = lookup.findStatic(JavaClosure.class, "writeResult",
+                    MethodType.methodType(void.class, Value.class, Object.class));
+            ACCESSORS = Map.of(
+                    boolean.class, accessors(lookup, Types.BOOLEAN, boolean.class, "Boolean"),
+                    int.class,     accessors(lookup, Types.INT,     int.class,     "Int"),
+                    long.class,    accessors(lookup, Types.INT64,   long.class,    "Int64"),
+                    float.class,   accessors(lookup, Types.FLOAT,   float.class,   "Float"),
+                    double.class,  accessors(lookup, Types.DOUBLE,  double.class,  "Double"),
+                    String.class,  accessors(lookup, Types.STRING,  String.class,  "String"));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static Accessors accessors(MethodHandles.Lookup lookup,
+                                       Type type,
+                                       Class<?> cls,
+                                       String name)
+            throws NoSuchMethodException, IllegalAccessException {
+        return new Accessors(type,
+                lookup.findVirtual(Value.class, "get" + name,
+                        MethodType.methodType(cls)),
+                lookup.findVirtual(Value.class, "set" + name,
+                        MethodType.methodType(void.class, cls)));
+    }
+
+    // Used as the generic return value writer
+    private static void writeResult(Value dest, Object src) {
+        ValueUtil.objectToValue(src, dest);
+    }
+
+    /*
+     * Invokes a Java method with the arguments from GValues. The method
+     * handle is adapted to the types of the GValues on first use, and cached
+     * until the closure is invoked with GValues of different types.
+     */
+    private static final class MethodMarshaller {
+
+        /*
+         * The adapted method handles are shared by all closures for the same
+         * method. For an instance method, the cached handle takes the
+         * instance as its first parameter, and it is bound to the instance
+         * of each closure.
+         */
+        private record AdapterKey(Method method, long[] signature) {
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof AdapterKey other
+                        && method.equals(other.method)
+                        && Arrays.equals(signature, other.signature);
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * method.hashCode() + Arrays.hashCode(signature);
+            }
+        }
+
+        private static final Map<AdapterKey, MethodHandle> ADAPTERS =
+                new ConcurrentHashMap<>();
+
+        private final Object instance;
+        private final Method method;
+
+        // The GTypes of the return value and arguments, and the adapted
+        // method handle with type (Value returnValue, Value[] params)void
+        private record Adapter(long[] signature, MethodHandle handle) {
+        }
+
+        private volatile Adapter adapter;
+
+        MethodMarshaller(Object instance, Method method) {
+            this.instance = instance;
+            this.method = method;
+        }
+
+        void marshal(Value returnValue, Value[] paramValues) {
+            if (paramValues == null)
+                paramValues = new Value[0];
+
+            MethodHandle handle;
             try {
-                Object[] parameterObjects;
-                if (paramValues == null || paramValues.length == 0) {
-                    parameterObjects = new Object[0];
-                } else {
-                    // Convert the parameter Values into Java Objects
-                    parameterObjects = new Object[paramValues.length - 1];
-                    for (int v = 1; v < paramValues.length; v++) {
-                        Object o = ValueUtil.valueToObject(paramValues[v]);
-                        parameterObjects[v - 1] = o;
-                    }
+                Adapter current = adapter;
+                if (current == null
+                        || !matches(current.signature(), returnValue, paramValues)) {
+                    long[] signature = signature(returnValue, paramValues);
+                    current = new Adapter(signature,
+                            bind(signature, returnValue, paramValues));
+                    adapter = current;
                 }
-                // Invoke the method
-                method.setAccessible(true);
-                Object result = method.invoke(instance, parameterObjects);
-
-                // Convert the returned Object to a GValue
-                ValueUtil.objectToValue(result, returnValue);
-            } catch (InvocationTargetException e) {
+                handle = current.handle();
+            } catch (Exception e) {
                 GLib.log(
                     LOG_DOMAIN,
                     LogLevelFlags.LEVEL_CRITICAL,
-                    "JavaClosure: Exception in method %s in class %s: %s\n",
-                    method.getName(),
+                    "JavaClosure: Cannot invoke method %s in class %s: %s\n",
+                    method == null ? "null" : method.getName(),
                     instance == null ? "null" : instance.getClass().getName(),
-                    e.getCause().toString()
+                    e.toString()
                 );
-            } catch (Exception e) {
+                return;
+            }
+
+            try {
+                handle.invokeExact(returnValue, paramValues);
+            } catch (Throwable e) {
                 GLib.log(
                     LOG_DOMAIN,
                     LogLevelFlags.LEVEL_CRITICAL,
-                    "JavaClosure: Cannot invoke method %s in class %s: %s\n",
-                    method == null ? "null" : method.getName(),
+                    "JavaClosure: Exception in method %s in class %s: %s\n",
+                    method.getName(),
                     instance == null ? "null" : instance.getClass().getName(),
                     e.toString()
                 );
             }
-        });
+        }
+
+        /*
+         * Get the shared method handle for the GTypes in the signature, and
+         * bind it to the instance of this closure.
+         */
+        private MethodHandle bind(long[] signature,
+                                  Value returnValue,
+                                  Value[] paramValues)
+                throws IllegalAccessException {
+            var key = new AdapterKey(method, signature);
+            MethodHandle handle = ADAPTERS.get(key);
+            if (handle == null) {
+                handle = adapt(method, returnValue, paramValues);
+                MethodHandle existing = ADAPTERS.putIfAbsent(key, handle);
+                if (existing != null)
+                    handle = existing;
+            }
+            return Modifier.isStatic(method.getModifiers())
+                    ? handle
+                    : handle.bindTo(instance);
+        }
+
+        /*
+         * Create a method handle with type (Value returnValue, Value[] params)
+         * void, that reads the arguments from the parameter GValues (skipping
+         * the instance parameter), invokes the method, and writes the result
+         * to the return GValue. Arguments and return values of primitive and
+         * String types are read and written directly when the GValue has the
+         * matching fundamental type; other types are converted by ValueUtil.
+         * For an instance method, the method handle takes the instance as an
+         * additional first parameter.
+         */
+        private static MethodHandle adapt(Method method,
+                                          Value returnValue,
+                                          Value[] paramValues)
+                throws IllegalAccessException {
+            method.setAccessible(true);
+            MethodHandle target = MethodHandles.lookup().unreflect(method);
+            int receiver = Modifier.isStatic(method.getModifiers()) ? 0 : 1;
+            if (receiver == 1)
+                target = target.asType(target.type().changeParameterType(0, Object.class));
+
+            // The first GValue contains the instance parameter
+            int offset = paramValues.length == 0 ? 0 : 1;
+            int nParams = paramValues.length - offset;
+            MethodType type = target.type();
+            if (type.parameterCount() - receiver != nParams)
+                throw new IllegalArgumentException(
+                        "wrong number of arguments: %d expected: %d"
+                                .formatted(nParams, type.parameterCount() - receiver));
+
+            // Read the arguments from the GValues
+            var readers = new MethodHandle[nParams];
+            for (int i = 0; i < nParams; i++)
+                readers[i] = reader(type.parameterType(i + receiver),
+                        paramValues[i + offset]);
+            MethodHandle mh = MethodHandles.filterArguments(target, receiver, readers);
+            if (offset == 1)
+                mh = MethodHandles.dropArguments(mh, receiver, Value.class);
+            mh = mh.asSpreader(Value[].class, paramValues.length);
+
+            // Write the result to the return value
+            Class<?> returnType = type.returnType();
+            if (returnType == void.class || returnValue == null)
+                return MethodHandles.dropArguments(
+                        mh.asType(mh.type().changeReturnType(void.class)),
+                        receiver, Value.class);
+            mh = MethodHandles.collectArguments(
+                    writer(returnType, returnValue), 1, mh);
+            if (receiver == 0)
+                return mh;
+
+            // Move the instance parameter to the front: (Value, Object,
+            // Value[]) becomes (Object, Value, Value[])
+            return MethodHandles.permuteArguments(mh,
+                    MethodType.methodType(void.class,
+                            Object.class, Value.class, Value[].class),
+                    1, 0, 2);
+        }
+
+        private static MethodHandle reader(Class<?> cls, Value value) {
+            Accessors accessors = ACCESSORS.get(cls);
+            if (accessors != null && accessors.type().getValue() == gtype(value))
+                return accessors.getter();
+            return VALUE_TO_OBJECT.asType(MethodType.methodType(cls, Value.class));
+        }
+
+        private static MethodHandle writer(Class<?> cls, Value value) {
+            Accessors accessors = ACCESSORS.get(cls);
+            if (accessors != null && accessors.type().getValue() == gtype(value))
+                return accessors.setter();
+            return WRITE_RESULT.asType(
+                    MethodType.methodType(void.class, Value.class, cls));
+        }
+
+        // The GTypes of the return value (0 when null) and the parameters
+        private static long[] signature(Value returnValue, Value[] paramValues) {
+            long[] signature = new long[paramValues.length + 1];
+            signature[0] = gtype(returnValue);
+            for (int i = 0; i < paramValues.length; i++)
+                signature[i + 1] = gtype(paramValues[i]);
+            return signature;
+        }
+
+        private static boolean matches(long[] signature,
+                                       Value returnValue,
+                                       Value[] paramValues) {
+            if (signature.length != paramValues.length + 1
+                    || signature[0] != gtype(returnValue))
+                return false;
+            for (int i = 0; i < paramValues.length; i++)
+                if (signature[i + 1] != gtype(paramValues[i]))
+                    return false;
+            return true;
+        }
+
+        // Read the GType from the first field of the GValue, without
+        // allocating a Type instance
+        private static long gtype(Value value) {
+            return value == null ? 0
+                    : value.handle().get(ValueLayout.JAVA_LONG, 0);
+        }
     }
 }
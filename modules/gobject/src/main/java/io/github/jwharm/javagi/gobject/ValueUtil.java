@@ -20,12 +20,19 @@
 package io.github.jwharm.javagi.gobject;
 
 import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import io.github.jwharm.javagi.gobject.types.Types;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
 import org.gnome.glib.Type;
+import org.gnome.glib.Variant;
 import org.gnome.gobject.*;
 
 import io.github.jwharm.javagi.base.Enumeration;
@@ -34,9 +41,126 @@ import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
 
 /**
  * Utility functions to convert a {@link Value} to and from a Java Object.
+ * <p>
+ * The conversion functions are stored in a table that is indexed by the
+ * fundamental GType. For derived types (like a specific enum, flags, boxed
+ * or object type), the fundamental type is looked up once and cached.
  */
 public class ValueUtil {
-    
+
+    private static final int FUNDAMENTAL_SHIFT = 2;
+    private static final long FUNDAMENTAL_MAX = (255 << FUNDAMENTAL_SHIFT);
+
+    // Conversion functions, indexed by fundamental type id
+    private static final Handler[] fundamentals =
+            new Handler[(int) (FUNDAMENTAL_MAX >> FUNDAMENTAL_SHIFT) + 1];
+
+    // Conversion functions for derived types, keyed by GType
+    private static final Map<Long, Handler> derived = new ConcurrentHashMap<>();
+
+    // Conversion functions for GType values and for unknown types
+    private static final Handler GTYPE = new Handler(
+            Value::getGtype, (v, o) -> v.setGtype((Type) o));
+    private static final Handler BOXED = new Handler(
+            Value::getBoxed, (v, o) -> v.setBoxed((MemorySegment) o));
+
+    /*
+     * Converts a GValue to a Java object, and a Java object to a GValue.
+     */
+    private record Handler(Function<Value, Object> getter, Setter setter) {
+    }
+
+    @FunctionalInterface
+    private interface Setter {
+        void set(Value dest, Object src) throws Throwable;
+    }
+
+    static {
+        register(Types.INTERFACE, Value::getObject, (v, o) -> v.setObject((GObject) o));
+        register(Types.CHAR,      Value::getSchar,  (v, o) -> v.setSchar((Byte) o));
+        register(Types.UCHAR,     Value::getUchar,  (v, o) -> v.setUchar((Byte) o));
+        register(Types.BOOLEAN,   Value::getBoolean, (v, o) -> v.setBoolean((Boolean) o));
+        register(Types.INT,       Value::getInt,    (v, o) -> v.setInt((Integer) o));
+        register(Types.UINT,      Value::getUint,   (v, o) -> v.setUint((Integer) o));
+        register(Types.LONG,      Value::getLong,   platformLongSetter("setLong"));
+        register(Types.ULONG,     Value::getUlong,  platformLongSetter("setUlong"));
+        register(Types.INT64,     Value::getInt64,  (v, o) -> v.setInt64((Long) o));
+        register(Types.UINT64,    Value::getUint64, (v, o) -> v.setUint64((Long) o));
+        register(Types.ENUM,      Value::getEnum,   (v, o) -> v.setEnum(((Enumeration) o).getValue()));
+        register(Types.FLAGS,     Value::getFlags,  (v, o) -> v.setFlags(((Enumeration) o).getValue()));
+        register(Types.FLOAT,     Value::getFloat,  (v, o) -> v.setFloat((Float) o));
+        register(Types.DOUBLE,    Value::getDouble, (v, o) -> v.setDouble((Double) o));
+        register(Types.STRING,    Value::getString, (v, o) -> v.setString((String) o));
+        register(Types.POINTER,   Value::getPointer, (v, o) -> v.setPointer((MemorySegment) o));
+        register(Types.BOXED,     BOXED);
+        register(Types.PARAM,     Value::getParam,  (v, o) -> v.setParam((ParamSpec) o));
+        register(Types.OBJECT,    Value::getObject, (v, o) -> v.setObject((GObject) o));
+        register(Types.VARIANT,   Value::getVariant, (v, o) -> v.setVariant((Variant) o));
+    }
+
+    private static void register(Type type,
+                                 Function<Value, Object> getter,
+                                 Setter setter) {
+        register(type, new Handler(getter, setter));
+    }
+
+    private static void register(Type type, Handler handler) {
+        fundamentals[(int) (type.getValue() >> FUNDAMENTAL_SHIFT)] = handler;
+    }
+
+    /*
+     * On Linux: Value.setLong(long), on Windows: Value.setLong(int). Look up
+     * the method once, and adapt it to accept a boxed value.
+     */
+    private static Setter platformLongSetter(String name) {
+        for (Method m : Value.class.getDeclaredMethods()) {
+            if (name.equals(m.getName()) && m.getParameterCount() == 1) {
+                try {
+                    MethodHandle h = MethodHandles.lookup().unreflect(m)
+                            .asType(MethodType.methodType(void.class,
+                                    Value.class, Object.class));
+                    return (v, o) -> h.invokeExact(v, o);
+                } catch (IllegalAccessException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+        throw new AssertionError("Method Value." + name + " not found");
+    }
+
+    /*
+     * Get the conversion functions for the provided GType. Returns null for
+     * G_TYPE_INVALID and G_TYPE_NONE.
+     */
+    private static Handler handler(Type type) {
+        long value = type.getValue();
+        if (value <= FUNDAMENTAL_MAX)
+            return fundamentals[(int) (value >> FUNDAMENTAL_SHIFT)];
+
+        Handler handler = derived.get(value);
+        if (handler == null) {
+            handler = resolve(type);
+            derived.put(value, handler);
+        }
+        return handler;
+    }
+
+    /*
+     * Find the conversion functions for a derived type. GType values have a
+     * derived pointer type that is handled separately. Types with an unknown
+     * fundamental type are handled as boxed types.
+     */
+    private static Handler resolve(Type type) {
+        if (type.equals(GObjects.gtypeGetType()))
+            return GTYPE;
+
+        long fundamental = GObjects.typeFundamental(type).getValue();
+        Handler handler = fundamental <= FUNDAMENTAL_MAX
+                ? fundamentals[(int) (fundamental >> FUNDAMENTAL_SHIFT)]
+                : null;
+        return handler == null ? BOXED : handler;
+    }
+
     /**
      * Read the GType from the GValue, call the corresponding getter (using the
      * methods defined in the {@link Value} proxy class), and return the result.
@@ -53,25 +177,12 @@ public class ValueUtil {
         
         Type type = src.readGType();
         
-        if (type == null || type.equals(Types.NONE)) {
+        if (type == null) {
             return null;
         }
 
-        if (type.equals(Types.BOOLEAN))           return src.getBoolean();
-        if (type.equals(Types.CHAR))              return src.getSchar();
-        if (type.equals(Types.DOUBLE))            return src.getDouble();
-        if (type.equals(Types.FLOAT))             return src.getFloat();
-        if (type.equals(Types.INT))               return src.getInt();
-        if (type.equals(Types.LONG))              return src.getLong();
-        if (type.equals(Types.STRING))            return src.getString();
-        if (type.equals(Types.ENUM))              return src.getEnum();
-        if (type.equals(Types.FLAGS))             return src.getFlags();
-        if (type.equals(Types.OBJECT))            return src.getObject();
-        if (type.equals(GObjects.gtypeGetType())) return src.getGtype();
-        if (type.equals(Types.POINTER))           return src.getPointer();
-        if (type.equals(Types.PARAM))             return src.getParam();
-
-        return src.getBoxed();
+        Handler handler = handler(type);
+        return handler == null ? null : handler.getter().apply(src);
     }
 
     /**
@@ -91,45 +202,13 @@ public class ValueUtil {
         if (type == null)
             return;
 
+        Handler handler = handler(type);
+        if (handler == null)
+            return;
+
         try {
-            if (type.equals(Types.BOOLEAN)) {
-                dest.setBoolean((Boolean) src);
-            } else if (type.equals(Types.CHAR)) {
-                dest.setSchar((Byte) src);
-            } else if (type.equals(Types.DOUBLE)) {
-                dest.setDouble((Double) src);
-            } else if (type.equals(Types.FLOAT)) {
-                dest.setFloat((Float) src);
-            } else if (type.equals(Types.INT)) {
-                dest.setInt((Integer) src);
-            } else if (type.equals(Types.LONG)) {
-                // On Linux: Value.setLong(long), on Windows: Value.setLong(int)
-                // Use reflection to bypass the type checker
-                for (Method m : Value.class.getDeclaredMethods()) {
-                    if ("setLong".equals(m.getName())) {
-                        m.invoke(dest, src);
-                        break;
-                    }
-                }
-            } else if (type.equals(Types.STRING)) {
-                dest.setString((String) src);
-            } else if (type.equals(Types.ENUM)) {
-                dest.setEnum(((Enumeration) src).getValue());
-            } else if (type.equals(Types.FLAGS)) {
-                dest.setFlags(((Enumeration) src).getValue());
-            } else if (type.equals(Types.OBJECT)) {
-                dest.setObject((GObject) src);
-            } else if (type.equals(GObjects.gtypeGetType())) {
-                dest.setGtype((Type) src);
-            } else if (type.equals(Types.POINTER)) {
-                dest.setPointer((MemorySegment) src);
-            } else if (type.equals(Types.PARAM)) {
-                dest.setParam((ParamSpec) src);
-            } else {
-                // Boxed value
-                dest.setBoxed((MemorySegment) src);
-            }
-        } catch (Exception e) {
+            handler.setter().set(dest, src);
+        } catch (Throwable e) {
             GLib.log(
                     LOG_DOMAIN,
                     LogLevelFlags.LEVEL_CRITICAL,
@@ -29,7 +29,6 @@ import org.gnome.glib.Type;
 import org.gnome.gobject.*;
 
 import java.lang.foreign.Arena;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -309,6 +308,10 @@ public class Properties {
         List<String> propertyNames = new ArrayList<>();
         propertyNames.add(null); // index 0 is reserved
 
+        // The ParamSpec classes, used to specialize the property accessors
+        List<Class<? extends ParamSpec>> propertyTypes = new ArrayList<>();
+        propertyTypes.add(null); // index 0 is reserved
+
         for (Method method : cls.getDeclaredMethods()) {
 
             // Look for methods with annotation @Property
@@ -408,15 +411,19 @@ public class Properties {
             }
             propertySpecs.add(ps);
             propertyNames.add(name);
+            propertyTypes.add(paramspec);
         }
 
         // No properties found?
         if (propertySpecs.size() == 1)
             return null;
 
-        // Create arrays of getter and setter methods.
-        Method[] getters = new Method[propertySpecs.size()];
-        Method[] setters = new Method[propertySpecs.size()];
+        // Create arrays of getter and setter accessors. The methods are
+        // compiled into method handles once, during class initialization.
+        PropertyAccessors.Getter[] getters =
+                new PropertyAccessors.Getter[propertySpecs.size()];
+        PropertyAccessors.Setter[] setters =
+                new PropertyAccessors.Setter[propertySpecs.size()];
 
         for (Method method : cls.getDeclaredMethods()) {
             if (! method.isAnnotationPresent(Property.class)) {
@@ -431,12 +438,23 @@ public class Properties {
                     : property.name();
 
             int idx = propertyNames.indexOf(name);
+            if (idx < 1)
+                continue;
 
             // Returns void -> setter, else -> getter
-            if (method.getReturnType().equals(void.class))
-                setters[idx] = method;
-            else
-                getters[idx] = method;
+            try {
+                if (method.getReturnType().equals(void.class))
+                    setters[idx] = PropertyAccessors.setter(
+                            method, propertyTypes.get(idx));
+                else
+                    getters[idx] = PropertyAccessors.getter(
+                            method, propertyTypes.get(idx));
+            } catch (IllegalAccessException e) {
+                // Tried to use a private method
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Cannot access property method %s in class %s\n",
+                        method.getName(), cls.getName());
+            }
         }
 
         // Create GParamSpec array. Index 0 is reserved.
@@ -466,30 +484,17 @@ public class Properties {
                     return;
                 }
 
-                // Invoke the getter method
-                Object output;
+                // Invoke the getter method and write the result to the GValue
                 try {
-                    output = getters[propertyId].invoke(object);
-                } catch (InvocationTargetException e) {
+                    getters[propertyId].get(object, value);
+                } catch (Throwable t) {
                     // Log exceptions thrown by the getter method
-                    Throwable t = e.getTargetException();
                     GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
                             "%s.getProperty('%s'): %s\n",
                             cls.getName(),
                             propertyNames.get(propertyId),
                             t.toString());
-                    return;
-                } catch (IllegalAccessException e) {
-                    // Tried to call a private method
-                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                            "IllegalAccessException calling %s.getProperty('%s')\n",
-                            cls.getName(), propertyNames.get(propertyId));
-                    return;
                 }
-
-                // Convert return value to GValue
-                if (output != null)
-                    ValueUtil.objectToValue(output, value);
             }, Arena.global());
 
             // Override the set_property virtual method
@@ -511,27 +516,16 @@ public class Properties {
                     return;
                 }
 
-                // Convert argument to GValue
-                Object input = ValueUtil.valueToObject(value);
-
-                // Invoke the setter method
-                if (input != null) {
-                    try {
-                        setters[propertyId].invoke(object, input);
-                    } catch (InvocationTargetException e) {
-                        // Log exceptions thrown by the setter method
-                        Throwable t = e.getTargetException();
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "%s.setProperty('%s'): %s\n",
-                                cls.getName(),
-                                propertyNames.get(propertyId),
-                                t.toString());
-                    } catch (IllegalAccessException e) {
-                        // Tried to call a private method
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "IllegalAccessException calling %s.setProperty('%s')\n",
-                                cls.getName(), propertyNames.get(propertyId));
-                    }
+                // Read the GValue and invoke the setter method
+                try {
+                    setters[propertyId].set(object, value);
+                } catch (Throwable t) {
+                    // Log exceptions thrown by the setter method
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "%s.setProperty('%s'): %s\n",
+                            cls.getName(),
+                            propertyNames.get(propertyId),
+                            t.toString());
                 }
             }, Arena.global());
 
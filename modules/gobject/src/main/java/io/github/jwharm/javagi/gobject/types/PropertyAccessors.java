@@ -0,0 +1,190 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.gobject.types;
+
+import io.github.jwharm.javagi.gobject.ValueUtil;
+import org.gnome.gobject.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Compiles {@code @Property} getter and setter methods into accessors that
+ * read or write a GValue. The getter or setter is converted into a
+ * {@link MethodHandle} when the class is initialized. When the Java type of
+ * the method matches the value type of the ParamSpec, the accessor reads or
+ * writes the GValue with the corresponding typed function, so the value is
+ * not boxed. Other types are converted with {@link ValueUtil}.
+ */
+final class PropertyAccessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private PropertyAccessors() {
+    }
+
+    /**
+     * Reads a property from a Java object into a GValue.
+     */
+    @FunctionalInterface
+    interface Getter {
+        void get(Object object, Value dest) throws Throwable;
+    }
+
+    /**
+     * Writes a property from a GValue into a Java object.
+     */
+    @FunctionalInterface
+    interface Setter {
+        void set(Object object, Value src) throws Throwable;
+    }
+
+    /**
+     * Create a getter accessor for a {@code @Property} getter method.
+     *
+     * @param  method    the getter method
+     * @param  paramspec the ParamSpec class of the property
+     * @return the getter accessor
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    static Getter getter(Method method, Class<? extends ParamSpec> paramspec)
+            throws IllegalAccessException {
+        MethodHandle mh = unreflect(method);
+        Class<?> type = method.getReturnType();
+
+        if (type == boolean.class && paramspec == ParamSpecBoolean.class) {
+            MethodHandle h = adapt(mh, boolean.class);
+            return (o, v) -> v.setBoolean((boolean) h.invokeExact(o));
+        }
+        if (type == byte.class && paramspec == ParamSpecChar.class) {
+            MethodHandle h = adapt(mh, byte.class);
+            return (o, v) -> v.setSchar((byte) h.invokeExact(o));
+        }
+        if (type == int.class && paramspec == ParamSpecInt.class) {
+            MethodHandle h = adapt(mh, int.class);
+            return (o, v) -> v.setInt((int) h.invokeExact(o));
+        }
+        if (type == long.class && paramspec == ParamSpecInt64.class) {
+            MethodHandle h = adapt(mh, long.class);
+            return (o, v) -> v.setInt64((long) h.invokeExact(o));
+        }
+        if (type == float.class && paramspec == ParamSpecFloat.class) {
+            MethodHandle h = adapt(mh, float.class);
+            return (o, v) -> v.setFloat((float) h.invokeExact(o));
+        }
+        if (type == double.class && paramspec == ParamSpecDouble.class) {
+            MethodHandle h = adapt(mh, double.class);
+            return (o, v) -> v.setDouble((double) h.invokeExact(o));
+        }
+        if (type == String.class && paramspec == ParamSpecString.class) {
+            MethodHandle h = adapt(mh, String.class);
+            return (o, v) -> {
+                String output = (String) h.invokeExact(o);
+                if (output != null)
+                    v.setString(output);
+            };
+        }
+        // Other types: box the value and convert it with ValueUtil
+        MethodHandle h = adapt(mh, Object.class);
+        return (o, v) -> {
+            Object output = (Object) h.invokeExact(o);
+            if (output != null)
+                ValueUtil.objectToValue(output, v);
+        };
+    }
+
+    /**
+     * Create a setter accessor for a {@code @Property} setter method.
+     *
+     * @param  method    the setter method
+     * @param  paramspec the ParamSpec class of the property
+     * @return the setter accessor
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    static Setter setter(Method method, Class<? extends ParamSpec> paramspec)
+            throws IllegalAccessException {
+        MethodHandle mh = unreflect(method);
+        Class<?> type = method.getParameterTypes()[0];
+
+        if (type == boolean.class && paramspec == ParamSpecBoolean.class) {
+            MethodHandle h = adapt(mh, void.class, boolean.class);
+            return (o, v) -> h.invokeExact(o, v.getBoolean());
+        }
+        if (type == byte.class && paramspec == ParamSpecChar.class) {
+            MethodHandle h = adapt(mh, void.class, byte.class);
+            return (o, v) -> h.invokeExact(o, v.getSchar());
+        }
+        if (type == int.class && paramspec == ParamSpecInt.class) {
+            MethodHandle h = adapt(mh, void.class, int.class);
+            return (o, v) -> h.invokeExact(o, v.getInt());
+        }
+        if (type == long.class && paramspec == ParamSpecInt64.class) {
+            MethodHandle h = adapt(mh, void.class, long.class);
+            return (o, v) -> h.invokeExact(o, v.getInt64());
+        }
+        if (type == float.class && paramspec == ParamSpecFloat.class) {
+            MethodHandle h = adapt(mh, void.class, float.class);
+            return (o, v) -> h.invokeExact(o, v.getFloat());
+        }
+        if (type == double.class && paramspec == ParamSpecDouble.class) {
+            MethodHandle h = adapt(mh, void.class, double.class);
+            return (o, v) -> h.invokeExact(o, v.getDouble());
+        }
+        if (type == String.class && paramspec == ParamSpecString.class) {
+            MethodHandle h = adapt(mh, void.class, String.class);
+            return (o, v) -> {
+                String input = v.getString();
+                if (input != null)
+                    h.invokeExact(o, input);
+            };
+        }
+        // Other types: convert the value with ValueUtil
+        MethodHandle h = adapt(mh, void.class, Object.class);
+        return (o, v) -> {
+            Object input = ValueUtil.valueToObject(v);
+            if (input != null)
+                h.invokeExact(o, input);
+        };
+    }
+
+    /*
+     * Convert the method into a method handle. Unlike core reflection, a
+     * Lookup can only access a class in another module when this module
+     * reads it, so the module of the declaring class is added to the
+     * modules that are read by this module first.
+     */
+    private static MethodHandle unreflect(Method method)
+            throws IllegalAccessException {
+        PropertyAccessors.class.getModule()
+                .addReads(method.getDeclaringClass().getModule());
+        return LOOKUP.unreflect(method);
+    }
+
+    // Adapt the method handle to take an Object receiver and the
+    // provided return and parameter types, for use with invokeExact
+    private static MethodHandle adapt(MethodHandle mh,
+                                      Class<?> returnType,
+                                      Class<?>... parameterTypes) {
+        return mh.asType(MethodType.methodType(returnType, Object.class)
+                .appendParameterTypes(parameterTypes));
+    }
+}
@@ -0,0 +1,181 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.gobject.types;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connects signal handlers through one shared upcall stub per signal
+ * callback type, instead of a new upcall stub for every connection.
+ * <p>
+ * The Java handler is stored in a table, and the key of the table entry is
+ * passed to {@code g_signal_connect_data} as the {@code user_data} pointer.
+ * The shared upcall stub reads the handler from the table and invokes its
+ * {@code upcall} method. When the signal handler is disconnected (or the
+ * instance is finalized), GLib calls the {@link #destroyNotify()} function,
+ * which removes the handler from the table.
+ * <p>
+ * The upcall stubs are allocated in the global arena, so the memory that is
+ * used for upcall stubs does not grow with the number of connections.
+ */
+public final class SignalHandlers {
+
+    // The connected handlers, keyed by user_data pointer
+    private static final Map<Long, Object> handlers = new ConcurrentHashMap<>();
+    private static final AtomicLong keys = new AtomicLong();
+
+    // The shared upcall stubs, keyed by callback type
+    private static final Map<Class<?>, MemorySegment> stubs =
+            new ConcurrentHashMap<>();
+
+    private static final MethodHandle lookupHandler;
+    private static final MemorySegment destroy_notify;
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            lookupHandler = lookup.findStatic(SignalHandlers.class,
+                    "lookupHandler",
+                    MethodType.methodType(Object.class, MemorySegment.class));
+
+            // Create an upcall stub for the "release" function
+            FunctionDescriptor fdesc = FunctionDescriptor.ofVoid(
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS);
+            var handle = lookup.findStatic(
+                    SignalHandlers.class,
+                    "release",
+                    fdesc.toMethodType()
+            );
+            destroy_notify = Linker.nativeLinker()
+                    .upcallStub(handle, fdesc, Arena.global());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private SignalHandlers() {
+    }
+
+    /**
+     * Get the shared upcall stub for a signal callback type. The stub has
+     * the provided function descriptor with an additional {@code user_data}
+     * pointer parameter. It invokes the {@code upcall} method of the handler
+     * that was registered with the {@code user_data} key. The stub is created
+     * the first time it is requested.
+     *
+     * @param  lookup the lookup object that can access the upcall method
+     * @param  cls    the functional interface of the signal callback
+     * @param  fdesc  the function descriptor of the upcall method
+     * @return the shared upcall stub
+     */
+    public static MemorySegment stub(MethodHandles.Lookup lookup,
+                                     Class<?> cls,
+                                     FunctionDescriptor fdesc) {
+        MemorySegment stub = stubs.get(cls);
+        if (stub == null)
+            stub = stubs.computeIfAbsent(cls,
+                    key -> createStub(lookup, cls, fdesc));
+        return stub;
+    }
+
+    private static MemorySegment createStub(MethodHandles.Lookup lookup,
+                                            Class<?> cls,
+                                            FunctionDescriptor fdesc) {
+        MethodHandle upcall;
+        try {
+            upcall = lookup.findVirtual(cls, "upcall", fdesc.toMethodType());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+
+        // (user_data, params...) -> handler.upcall(params...)
+        MethodHandle mh = MethodHandles.filterArguments(upcall, 0,
+                lookupHandler.asType(MethodType.methodType(
+                        cls, MemorySegment.class)));
+
+        // Move the user_data parameter to the end
+        int nParams = fdesc.argumentLayouts().size();
+        int[] reorder = new int[nParams + 1];
+        reorder[0] = nParams;
+        for (int i = 1; i <= nParams; i++)
+            reorder[i] = i - 1;
+        MethodType type = mh.type()
+                .dropParameterTypes(0, 1)
+                .appendParameterTypes(MemorySegment.class);
+        mh = MethodHandles.permuteArguments(mh, type, reorder);
+
+        return Linker.nativeLinker().upcallStub(mh,
+                fdesc.appendArgumentLayouts(ValueLayout.ADDRESS),
+                Arena.global());
+    }
+
+    /**
+     * Add a handler to the table.
+     *
+     * @param  handler the signal handler
+     * @return the {@code user_data} pointer that identifies the handler
+     */
+    public static MemorySegment register(Object handler) {
+        long key = keys.incrementAndGet();
+        handlers.put(key, handler);
+        return MemorySegment.ofAddress(key);
+    }
+
+    /**
+     * Get the function pointer of the {@code GClosureNotify} function that
+     * removes a handler from the table. Pass this to
+     * {@code g_signal_connect_data} as the {@code destroy_data} argument.
+     *
+     * @return the function pointer of the destroy notify function
+     */
+    public static MemorySegment destroyNotify() {
+        return destroy_notify;
+    }
+
+    /**
+     * Get the number of handlers in the table.
+     *
+     * @return the number of connected handlers
+     */
+    public static int connectedHandlers() {
+        return handlers.size();
+    }
+
+    // Called from the shared upcall stubs
+    private static Object lookupHandler(MemorySegment userData) {
+        return handlers.get(userData.address());
+    }
+
+    // Called by GLib when a signal handler is disconnected
+    private static void release(MemorySegment userData, MemorySegment closure) {
+        handlers.remove(userData.address());
+    }
+}
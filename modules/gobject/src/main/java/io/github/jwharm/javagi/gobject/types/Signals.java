@@ -24,6 +24,7 @@ import io.github.jwharm.javagi.base.Proxy;
 import io.github.jwharm.javagi.base.ProxyInstance;
 import io.github.jwharm.javagi.gobject.ValueUtil;
 import io.github.jwharm.javagi.gobject.annotations.Signal;
+import io.github.jwharm.javagi.interop.CallArena;
 import io.github.jwharm.javagi.interop.Interop;
 import org.gnome.glib.Quark;
 import org.gnome.glib.Type;
@@ -31,6 +32,7 @@ import org.gnome.gobject.*;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
@@ -38,7 +40,9 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -78,6 +82,43 @@ public class Signals {
                         ValueLayout.ADDRESS, ValueLayout.ADDRESS),
                 true);
 
+    /*
+     * The method handle for g_signal_emitv is used by Signals.emit, with an
+     * instance_and_params array that is allocated in a single block.
+     */
+    private static final MethodHandle g_signal_emitv =
+            Interop.downcallHandle(
+                "g_signal_emitv",
+                FunctionDescriptor.ofVoid(
+                        ValueLayout.ADDRESS, ValueLayout.JAVA_INT,
+                        ValueLayout.JAVA_INT, ValueLayout.ADDRESS),
+                false);
+
+    /*
+     * The resolved signal id, detail quark, return type and parameter types
+     * of a detailed signal.
+     */
+    private record SignalInfo(int signalId,
+                              int detail,
+                              Type returnType,
+                              Type[] paramTypes) {}
+
+    /*
+     * The GType of a Java class, and the signals that were emitted on
+     * instances of the class, keyed by detailed signal name.
+     */
+    private record ClassSignals(Type gtype,
+                                Map<String, SignalInfo> signals) {}
+
+    private static final ClassValue<ClassSignals> CLASS_SIGNALS =
+            new ClassValue<>() {
+                @Override
+                protected ClassSignals computeValue(Class<?> cls) {
+                    return new ClassSignals(Types.getGType(cls),
+                            new ConcurrentHashMap<>());
+                }
+            };
+
     private record SignalDeclaration(String signalName,
                                      Set<SignalFlags> signalFlags,
                                      Type returnType,
@@ -251,49 +292,54 @@ public class Signals {
     public static Object emit(GObject gobject,
                               String detailedSignal,
                               Object... params) {
-        Type gtype = Types.getGType(gobject.getClass());
-
-        // Parse the detailed signal name into a signal id and detail quark
-        Out<Integer> signalId = new Out<>();
-        Quark detailQ = new Quark(0);
-        boolean success = GObjects.signalParseName(
-                detailedSignal, gtype, signalId, detailQ, false);
-
-        if (! success)
-            throw new IllegalArgumentException("Invalid signal \"%s\" for class %s"
-                    .formatted(detailedSignal, gobject));
-
-        try (var arena = Arena.ofConfined()) {
-            // Query the parameter details of the signal
-            SignalQuery query = new SignalQuery(arena);
-            GObjects.signalQuery(signalId.get(), query);
-
-            // Create an array of Types for the parameters
-            int nParams = query.readNParams();
-            Type[] paramTypes = query.readParamTypes();
+        ClassSignals classSignals = CLASS_SIGNALS.get(gobject.getClass());
+        Type gtype = classSignals.gtype();
+
+        // Resolve the signal id, detail quark and parameter types once
+        SignalInfo info = classSignals.signals().get(detailedSignal);
+        if (info == null) {
+            info = querySignal(gobject, gtype, detailedSignal);
+            classSignals.signals().put(detailedSignal, info);
+        }
 
-            // Allocate Values array for the instance parameter and other
-            // parameters
+        Type returnType = info.returnType();
+        Type[] paramTypes = info.paramTypes();
+        int nParams = paramTypes.length;
+        long valueSize = Value.getMemoryLayout().byteSize();
+
+        try (var arena = CallArena.open()) {
+            // Allocate one block of GValues for the instance parameter, the
+            // other parameters and the return value. The block is used as
+            // the instance_and_params array.
+            MemorySegment block = arena.allocate(
+                    Value.getMemoryLayout(), nParams + 2);
             var values = new Value[nParams+1];
+            for (int i = 0; i <= nParams; i++)
+                values[i] = new Value(block.asSlice(i * valueSize, valueSize));
+            var returnValue = new Value(
+                    block.asSlice((nParams + 1) * valueSize, valueSize));
 
             // Allocation return value
-            var returnValue = new Value(arena);
-            Type returnType = query.readReturnType();
             if (! Types.NONE.equals(returnType))
                 returnValue.init(returnType);
 
             // Set instance parameter
-            values[0] = new Value(arena).init(gtype);
+            values[0].init(gtype);
             values[0].setObject(gobject);
 
             // Set other parameters
             for (int i = 0; i < nParams; i++) {
-                values[i+1] = new Value(arena).init(paramTypes[i]);
+                values[i+1].init(paramTypes[i]);
                 ValueUtil.objectToValue(params[i], values[i+1]);
             }
 
             // Emit the signal
-            GObjects.signalEmitv(values, signalId.get(), detailQ, returnValue);
+            try {
+                g_signal_emitv.invokeExact(block, info.signalId(),
+                        info.detail(), returnValue.handle());
+            } catch (Throwable _err) {
+                throw new AssertionError(_err);
+            }
 
             // Return the result (if any)
             Object result = Types.NONE.equals(returnType)
@@ -301,16 +347,42 @@ public class Signals {
                     : ValueUtil.valueToObject(returnValue);
 
             // Cleanup the allocated values
-            for (Value value : values) {
-                if (value != null)
-                    value.unset();
-            }
-            returnValue.unset();
+            for (Value value : values)
+                value.unset();
+            if (! Types.NONE.equals(returnType))
+                returnValue.unset();
 
             return result;
         }
     }
 
+    /*
+     * Parse the detailed signal name into a signal id and detail quark, and
+     * query the return type and parameter types of the signal.
+     */
+    private static SignalInfo querySignal(GObject gobject,
+                                          Type gtype,
+                                          String detailedSignal) {
+        Out<Integer> signalId = new Out<>();
+        Quark detailQ = new Quark(0);
+        boolean success = GObjects.signalParseName(
+                detailedSignal, gtype, signalId, detailQ, false);
+
+        if (! success)
+            throw new IllegalArgumentException("Invalid signal \"%s\" for class %s"
+                    .formatted(detailedSignal, gobject));
+
+        try (var arena = Arena.ofConfined()) {
+            SignalQuery query = new SignalQuery(arena);
+            GObjects.signalQuery(signalId.get(), query);
+            return new SignalInfo(
+                    signalId.get(),
+                    detailQ.getValue(),
+                    query.readReturnType(),
+                    query.readParamTypes());
+        }
+    }
+
     /**
      * Get the single abstract method (SAM) implementation of a class that
      * implements a functional interface. A functional interface is an
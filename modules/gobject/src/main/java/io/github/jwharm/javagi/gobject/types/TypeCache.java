@@ -20,13 +20,14 @@
 package io.github.jwharm.javagi.gobject.types;
 
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 import org.gnome.glib.Type;
-import org.gnome.gobject.TypeInstance;
+import org.gnome.gobject.GObjects;
 
 import io.github.jwharm.javagi.base.Proxy;
 
@@ -34,12 +35,59 @@ import io.github.jwharm.javagi.base.Proxy;
  * A register of GTypes with a Java constructor for each GType.
  * Using this register, the correct Java class is always instantiated, based on
  * the GType of the native object instance.
+ * <p>
+ * The register is keyed by the primitive GType value. Lookups don't lock and
+ * don't allocate.
+ * <p>
+ * The generated bindings add the constructors of all types in a namespace to
+ * an index by GType name (see {@link #registerTypeName(String, Function)}),
+ * without calling the get-type functions. The first time an unknown GType is
+ * looked up, its constructor is resolved from this index.
  */
 public class TypeCache {
-    
-    private final static Map<Type, Function<MemorySegment, ? extends Proxy>> typeRegister
+
+    private final static Registry typeRegister = new Registry();
+    private final static Map<String, Function<MemorySegment, ? extends Proxy>> typeIndex
             = new ConcurrentHashMap<>();
 
+    /**
+     * Read the GType of the native object instance at the given memory
+     * address, without creating {@code TypeInstance} and {@code TypeClass}
+     * proxy objects.
+     *
+     * @param  address address of a TypeInstance
+     * @return the GType of the instance, or 0 if {@code address} is
+     *         {@code null} or a null-pointer
+     */
+    public static long readGType(MemorySegment address) {
+        if (address == null || address.address() == 0L)
+            return 0L;
+
+        // GTypeInstance.g_class is the first field of the instance
+        MemorySegment gClass = address
+                .reinterpret(ValueLayout.ADDRESS.byteSize())
+                .get(ValueLayout.ADDRESS, 0);
+        return readGTypeFromClass(gClass);
+    }
+
+    /**
+     * Read the GType of the native TypeClass at the given memory address,
+     * without creating a {@code TypeClass} proxy object.
+     *
+     * @param  address address of a TypeClass
+     * @return the GType of the class, or 0 if {@code address} is
+     *         {@code null} or a null-pointer
+     */
+    public static long readGTypeFromClass(MemorySegment address) {
+        if (address == null || address.address() == 0L)
+            return 0L;
+
+        // GTypeClass.g_type is the first field of the class
+        return address
+                .reinterpret(ValueLayout.JAVA_LONG.byteSize())
+                .get(ValueLayout.JAVA_LONG, 0);
+    }
+
     /**
      * Get the constructor from the type registry for the native object
      * instance at the given memory address. The applicable constructor is
@@ -55,12 +103,10 @@ public class TypeCache {
     public static Function<MemorySegment, ? extends Proxy> getConstructor(MemorySegment address,
                                                                           Function<MemorySegment, ? extends Proxy> fallback) {
         // Null check on the memory address
-        if (address == null || address.equals(MemorySegment.NULL)) return null;
+        if (address == null || address.address() == 0L) return null;
 
         // Read the gtype from memory
-        Type type = new TypeInstance(address).readGClass().readGType();
-        
-        return getConstructor(type, fallback);
+        return getConstructor(readGType(address), fallback);
     }
     
     /**
@@ -74,20 +120,54 @@ public class TypeCache {
      */
     public static Function<MemorySegment, ? extends Proxy> getConstructor(Type type,
                                                                           Function<MemorySegment, ? extends Proxy> fallback) {
+        return getConstructor(type == null ? 0L : type.getValue(), fallback);
+    }
+
+    /**
+     * Get the constructor from the type registry for the provided GType.
+     * <p>
+     * When no constructor was registered for the GType, the fallback
+     * constructor is registered for the type and returned. Without a
+     * fallback constructor, the constructor of the nearest registered parent
+     * type is returned, and registered for the type, so the parent types
+     * don't need to be looked up again.
+     *
+     * @param type     the GType for which the constructor was registered
+     * @param fallback if none was found, this constructor will be registered
+     *                 for the type, and returned
+     * @return         the constructor, or {@code null} if none was found
+     */
+    public static Function<MemorySegment, ? extends Proxy> getConstructor(long type,
+                                                                          Function<MemorySegment, ? extends Proxy> fallback) {
+        if (type == 0L)
+            return fallback;
+
         // Find the constructor in the typeRegister and return it
-        if (type != null) {
-            Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(type);
-            if (ctor != null) {
-                return ctor;
-            }
-        }
+        Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(type);
+        if (ctor != null)
+            return ctor;
+
+        // Find the constructor in the index of generated types
+        ctor = lookupTypeName(type);
+        if (ctor != null)
+            return typeRegister.putIfAbsent(type, ctor);
 
         // Register the fallback constructor for this type. If another thread
         // did this in the meantime, putIfAbsent() will return that constructor.
-        if (fallback != null) {
-            var ctorFromOtherThread = typeRegister.putIfAbsent(type, fallback);
-            return Objects.requireNonNullElse(ctorFromOtherThread, fallback);
+        if (fallback != null)
+            return typeRegister.putIfAbsent(type, fallback);
+
+        // Find the constructor of the nearest registered parent type
+        Type parent = GObjects.typeParent(new Type(type));
+        while (parent != null && parent.getValue() != 0L) {
+            ctor = typeRegister.get(parent.getValue());
+            if (ctor == null)
+                ctor = lookupTypeName(parent.getValue());
+            if (ctor != null)
+                return typeRegister.putIfAbsent(type, ctor);
+            parent = GObjects.typeParent(parent);
         }
+
         // No constructor found in the typeRegister, and no fallback provided
         return null;
     }
@@ -100,8 +180,106 @@ public class TypeCache {
      */
     public static void register(Type type,
                                 Function<MemorySegment, ? extends Proxy> ctor) {
-        if (type != null) {
-            typeRegister.put(type, ctor);
+        if (type != null && type.getValue() != 0L && ctor != null) {
+            typeRegister.put(type.getValue(), ctor);
+        }
+    }
+
+    /**
+     * Add the provided constructor function for the GType with the provided
+     * name to the index. The GType itself does not need to be registered in
+     * the GObject type system yet.
+     *
+     * @param typeName the name of the GType
+     * @param ctor     constructor function for this type
+     */
+    public static void registerTypeName(String typeName,
+                                        Function<MemorySegment, ? extends Proxy> ctor) {
+        if (typeName != null && ctor != null) {
+            typeIndex.put(typeName, ctor);
+        }
+    }
+
+    // Lookup the constructor for the name of this GType in the index
+    private static Function<MemorySegment, ? extends Proxy> lookupTypeName(long type) {
+        if (typeIndex.isEmpty())
+            return null;
+        String name = GObjects.typeName(new Type(type));
+        return name == null ? null : typeIndex.get(name);
+    }
+
+    /*
+     * Open-addressing hash map from a GType to a constructor. Reads don't
+     * lock; modifications are synchronized, and a resized table is published
+     * with a volatile write. Entries are never removed.
+     */
+    private static final class Registry {
+
+        private record Entry(long type, Function<MemorySegment, ? extends Proxy> ctor) {
+        }
+
+        private volatile AtomicReferenceArray<Entry> table =
+                new AtomicReferenceArray<>(1024);
+        private int size;
+
+        private static int hash(long type) {
+            long h = type * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        Function<MemorySegment, ? extends Proxy> get(long type) {
+            AtomicReferenceArray<Entry> tab = table;
+            int mask = tab.length() - 1;
+            for (int i = hash(type) & mask; ; i = (i + 1) & mask) {
+                Entry e = tab.get(i);
+                if (e == null)
+                    return null;
+                if (e.type == type)
+                    return e.ctor;
+            }
+        }
+
+        synchronized Function<MemorySegment, ? extends Proxy> putIfAbsent(
+                long type, Function<MemorySegment, ? extends Proxy> ctor) {
+            var existing = get(type);
+            if (existing != null)
+                return existing;
+            put(type, ctor);
+            return ctor;
+        }
+
+        synchronized void put(long type,
+                              Function<MemorySegment, ? extends Proxy> ctor) {
+            AtomicReferenceArray<Entry> tab = table;
+            int i = slot(tab, type);
+            if (tab.get(i) == null) {
+                if (size + 1 > tab.length() / 2) {
+                    tab = resize(tab);
+                    i = slot(tab, type);
+                }
+                size++;
+            }
+            tab.set(i, new Entry(type, ctor));
+        }
+
+        // Find the slot of this type, or the empty slot where it should go
+        private static int slot(AtomicReferenceArray<Entry> tab, long type) {
+            int mask = tab.length() - 1;
+            int i = hash(type) & mask;
+            while (tab.get(i) != null && tab.get(i).type != type)
+                i = (i + 1) & mask;
+            return i;
+        }
+
+        private AtomicReferenceArray<Entry> resize(AtomicReferenceArray<Entry> old) {
+            var tab = new AtomicReferenceArray<Entry>(old.length() * 2);
+            for (int j = 0; j < old.length(); j++) {
+                Entry e = old.get(j);
+                if (e != null)
+                    tab.set(slot(tab, e.type), e);
+            }
+            table = tab;
+            return tab;
         }
     }
 }
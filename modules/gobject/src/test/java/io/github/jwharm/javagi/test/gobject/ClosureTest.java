@@ -22,15 +22,23 @@ package io.github.jwharm.javagi.test.gobject;
 import io.github.jwharm.javagi.gobject.annotations.Property;
 import io.github.jwharm.javagi.gobject.types.Types;
 import io.github.jwharm.javagi.gobject.JavaClosure;
+import io.github.jwharm.javagi.interop.Interop;
 import org.gnome.glib.Type;
 import org.gnome.gobject.Binding;
 import org.gnome.gobject.BindingFlags;
+import org.gnome.gobject.Closure;
 import org.gnome.gobject.GObject;
 import org.gnome.gobject.Value;
 import org.junit.jupiter.api.Test;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -44,6 +52,16 @@ public class ClosureTest {
         boolean timesTwo(MemorySegment p1, MemorySegment p2);
     }
 
+    public interface Repeat {
+        String repeat(String str, int count);
+    }
+
+    private static final MethodHandle g_closure_invoke = Interop.downcallHandle(
+            "g_closure_invoke",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            false);
+
     @Test
     public void methodReference() {
         // Create 2 objects, both with a simple "num" property of type int
@@ -90,6 +108,103 @@ public class ClosureTest {
         assertEquals(-50, n2.getNum());
     }
 
+    @Test
+    public void intArguments() throws Throwable {
+        JavaClosure closure = new JavaClosure((IntBinaryOperator) (a, b) -> a * b);
+        try (Arena arena = Arena.ofConfined()) {
+            Value result = new Value(arena).init(Types.INT);
+            Value[] params = params(arena, 3);
+            params[1].init(Types.INT).setInt(6);
+            params[2].init(Types.INT).setInt(7);
+            invoke(closure, result, params);
+            assertEquals(42, result.getInt());
+
+            // Invoke again with the same GValue types
+            params[1].setInt(-3);
+            invoke(closure, result, params);
+            assertEquals(-21, result.getInt());
+        }
+    }
+
+    @Test
+    public void stringArguments() throws Throwable {
+        JavaClosure closure = new JavaClosure((Repeat) String::repeat);
+        try (Arena arena = Arena.ofConfined()) {
+            Value result = new Value(arena).init(Types.STRING);
+            Value[] params = params(arena, 3);
+            params[1].init(Types.STRING).setString("ab");
+            params[2].init(Types.INT).setInt(3);
+            invoke(closure, result, params);
+            assertEquals("ababab", result.getString());
+        }
+    }
+
+    @Test
+    public void changedArgumentTypes() throws Throwable {
+        JavaClosure closure = new JavaClosure((IntUnaryOperator) x -> x * 3);
+        try (Arena arena = Arena.ofConfined()) {
+            Value result = new Value(arena).init(Types.INT);
+
+            // A G_TYPE_INT argument is read directly
+            Value[] params = params(arena, 2);
+            params[1].init(Types.INT).setInt(5);
+            invoke(closure, result, params);
+            assertEquals(15, result.getInt());
+
+            // A G_TYPE_UINT argument is converted by ValueUtil
+            params[1].unset();
+            params[1].init(Types.UINT).setUint(7);
+            invoke(closure, result, params);
+            assertEquals(21, result.getInt());
+
+            // And back
+            params[1].unset();
+            params[1].init(Types.INT).setInt(-1);
+            invoke(closure, result, params);
+            assertEquals(-3, result.getInt());
+        }
+    }
+
+    @Test
+    public void sharedMethod() throws Throwable {
+        // Closures for the same method invoke it on their own instance
+        Method multiply = Multiplier.class.getMethod("multiply", int.class);
+        JavaClosure times2 = new JavaClosure(new Multiplier(2), multiply);
+        JavaClosure times10 = new JavaClosure(new Multiplier(10), multiply);
+        try (Arena arena = Arena.ofConfined()) {
+            Value result = new Value(arena).init(Types.INT);
+            Value[] params = params(arena, 2);
+            params[1].init(Types.INT).setInt(4);
+            invoke(times2, result, params);
+            assertEquals(8, result.getInt());
+            invoke(times10, result, params);
+            assertEquals(40, result.getInt());
+        }
+    }
+
+    // Allocate a block of GValues. The first GValue is the instance parameter.
+    private static Value[] params(Arena arena, int count) {
+        long size = Value.getMemoryLayout().byteSize();
+        MemorySegment block = arena.allocate(Value.getMemoryLayout(), count);
+        var params = new Value[count];
+        for (int i = 0; i < count; i++)
+            params[i] = new Value(block.asSlice(i * size, size));
+        params[0].init(Types.POINTER);
+        return params;
+    }
+
+    private static void invoke(Closure closure, Value result, Value[] params)
+            throws Throwable {
+        g_closure_invoke.invokeExact(closure.handle(), result.handle(),
+                params.length, params[0].handle(), MemorySegment.NULL);
+    }
+
+    public record Multiplier(int factor) {
+        public int multiply(int x) {
+            return x * factor;
+        }
+    }
+
     // The method that is wrapped in a JavaClosure
     public boolean timesTwo(MemorySegment boxed1, MemorySegment boxed2) {
         Value src = new Value(boxed1);
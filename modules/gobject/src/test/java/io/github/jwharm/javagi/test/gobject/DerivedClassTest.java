@@ -92,6 +92,20 @@ public class DerivedClassTest {
         assertEquals(input2, object.getProperty("string-property"));
     }
 
+    /**
+     * Property methods are declared in the test module, so the gobject
+     * module must be able to read it to call them through a method handle
+     */
+    @Test
+    public void propertyMethodsAreReadable() {
+        TestObject object = GObject.newInstance(TestObject.gtype);
+        for (int i = 0; i < 3; i++) {
+            object.setProperty("string-property", "value " + i);
+            assertEquals("value " + i, object.getProperty("string-property"));
+        }
+        assertTrue(GObject.class.getModule().canRead(TestObject.class.getModule()));
+    }
+
     /**
      * Write a boolean to a GObject property and read it back
      */
@@ -112,6 +126,18 @@ public class DerivedClassTest {
         assertEquals(input2, object.getProperty("bool-property"));
     }
 
+    /**
+     * Write an int and a double to GObject properties and read them back
+     */
+    @Test
+    public void writeAndReadNumericProperties() {
+        TestObject object = GObject.newInstance(TestObject.gtype);
+        object.setProperty("int-property", 42);
+        assertEquals(42, object.getProperty("int-property"));
+        object.setProperty("double-property", 1.5d);
+        assertEquals(1.5d, object.getProperty("double-property"));
+    }
+
     /**
      * Simple GObject-derived class used in the above tests
      */
@@ -155,5 +181,29 @@ public class DerivedClassTest {
         public void setBoolProperty(boolean boolProperty) {
             this.boolProperty = boolProperty;
         }
+
+        private int intProperty = 0;
+
+        @Property
+        public int getIntProperty() {
+            return intProperty;
+        }
+
+        @Property
+        public void setIntProperty(int intProperty) {
+            this.intProperty = intProperty;
+        }
+
+        private double doubleProperty = 0;
+
+        @Property
+        public double getDoubleProperty() {
+            return doubleProperty;
+        }
+
+        @Property
+        public void setDoubleProperty(double doubleProperty) {
+            this.doubleProperty = doubleProperty;
+        }
     }
 }
@@ -29,9 +29,13 @@ import org.gnome.gobject.GObject;
 import org.junit.jupiter.api.Test;
 
 import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -41,6 +45,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  * <li>Defining a custom signal on a GObject-derived class
  * <li>Connecting to the custom signal
  * <li>Emitting the custom signal
+ * <li>Emitting the custom signal repeatedly, and from inside a handler
  * </ul>
  */
 public class NewSignalTest {
@@ -64,9 +69,41 @@ public class NewSignalTest {
         assertTrue(success.get());
     }
 
+    @Test
+    void emitRepeatedly() {
+        Counter counter = GObject.newInstance(Counter.getType(), "limit", 10);
+        List<Integer> received = new ArrayList<>();
+        counter.connect("limit-reached", (Counter.LimitReached) received::add);
+
+        for (int i = 0; i < 100; i++)
+            counter.emit("limit-reached", i);
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, received.get(i));
+    }
+
+    @Test
+    void emitFromHandler() {
+        Counter counter = GObject.newInstance(Counter.getType(), "limit", 10);
+
+        // Values from 100 are computed by emitting the signal again from
+        // inside the handler. The nested emission must not overwrite the
+        // parameters and return value of the outer emission.
+        counter.connect("compute", (Counter.Compute) value ->
+                value >= 100
+                        ? (int) counter.emit("compute", value - 100) + 1
+                        : value * 2);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 2, counter.emit("compute", i));
+            assertEquals(i * 2 + 1, counter.emit("compute", i + 100));
+        }
+    }
+
     /**
      * Simple GObject-derived class that can count up to a predefined maximum number.
      * When the maximum number is reached, the "limit-reached" signal is emitted.
+     * The "compute" signal is only emitted by the tests.
      * The class exposes two properties: the current count ("count") and the limit ("limit").
      */
     @RegisteredType(name="TestCounter")
@@ -85,6 +122,9 @@ public class NewSignalTest {
         @Signal
         public interface LimitReached extends IntConsumer {}
 
+        @Signal
+        public interface Compute extends IntUnaryOperator {}
+
         private int num = 0;
         private int limit;
 
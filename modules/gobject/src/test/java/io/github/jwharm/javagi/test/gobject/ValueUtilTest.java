@@ -0,0 +1,49 @@
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.ValueUtil;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.glib.IOCondition;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObjects;
+import org.gnome.gobject.Value;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test conversion between Java objects and GValues with {@link ValueUtil}
+ */
+public class ValueUtilTest {
+
+    private static Object roundTrip(Type type, Object input) {
+        Value value = new Value(Arena.ofAuto()).init(type);
+        ValueUtil.objectToValue(input, value);
+        Object output = ValueUtil.valueToObject(value);
+        value.unset();
+        return output;
+    }
+
+    @Test
+    public void testFundamentalTypes() {
+        assertEquals(true, roundTrip(Types.BOOLEAN, true));
+        assertEquals(123, roundTrip(Types.INT, 123));
+        assertEquals(123, roundTrip(Types.UINT, 123));
+        assertEquals(123L, roundTrip(Types.INT64, 123L));
+        assertEquals(123L, roundTrip(Types.UINT64, 123L));
+        assertEquals((byte) 12, roundTrip(Types.UCHAR, (byte) 12));
+        assertEquals(1.5d, roundTrip(Types.DOUBLE, 1.5d));
+        assertEquals("abc", roundTrip(Types.STRING, "abc"));
+    }
+
+    @Test
+    public void testDerivedTypes() {
+        // IOCondition is a flags type, derived from G_TYPE_FLAGS
+        assertEquals(IOCondition.IN.getValue(),
+                roundTrip(Types.IO_CONDITION, IOCondition.IN));
+
+        // GType values have a derived pointer type
+        assertEquals(Types.STRING, roundTrip(GObjects.gtypeGetType(), Types.STRING));
+    }
+}
@@ -36,6 +36,7 @@ import org.gnome.gobject.TypeFlags;
 import org.gnome.gtk.Widget;
 
 import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Set;
@@ -54,6 +55,10 @@ import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
  */
 public class Types {
 
+    // Calls the GObject dispose function pointer passed as first argument
+    private static final MethodHandle dispose =
+            Interop.downcallHandle(FunctionDescriptor.ofVoid(ValueLayout.ADDRESS));
+
     /**
      * Get the {@code name} parameter of the {@code GtkTemplate} annotation, or
      * if it is not defined, fallback to
@@ -209,9 +214,7 @@ public class Types {
                     var parent = GObject.ObjectClass.getMemoryLayout();
                     var func = Overrides.lookupVirtualMethodParent(
                                     object.handle(), parent, "dispose");
-                    var desc = FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
-                    var downcall = Interop.downcallHandle(func, desc);
-                    downcall.invokeExact(object.handle());
+                    dispose.invokeExact(func, object.handle());
                 } catch (Throwable _err) {
                     throw new AssertionError("Unexpected exception occurred: ", _err);
                 }
@@ -7,8 +7,10 @@ import org.gnome.gtk.WindowGroup;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.ListIterator;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -64,4 +66,39 @@ public class ListTest {
         assertEquals(0, emptyList.size());
         assertTrue(emptyList.isEmpty());
     }
+
+    @Test
+    public void testSnapshot() {
+        Gtk.init();
+
+        ArrayList<Window> input = new ArrayList<>();
+        WindowGroup group = new WindowGroup();
+        for (int i = 0; i < 10; i++) {
+            Window win = new Window();
+            input.add(win);
+            group.addWindow(win);
+        }
+
+        List<Window> glist = group.listWindows();
+
+        // Single-pass array snapshot
+        Object[] array = glist.toArray();
+        assertEquals(10, array.length);
+        for (Object win : array)
+            assertTrue(input.contains(win));
+
+        // Size and typed array without native calls
+        assertEquals(10, glist.size());
+        Window[] typed = glist.toArray(new Window[0]);
+        assertArrayEquals(array, typed);
+
+        // Iteration without list iterator
+        ArrayList<Window> output = new ArrayList<>();
+        glist.forEach(output::add);
+        assertEquals(Arrays.asList(array), output);
+
+        // Sized, splittable spliterator
+        assertEquals(10, glist.spliterator().getExactSizeIfKnown());
+        assertEquals(10, glist.parallelStream().filter(input::contains).count());
+    }
 }